@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.maven;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/**
+ * Runs {@code io.swagger.inflector.codegen.AdapterGenerator} against the project's compiled
+ * controllers.  The generator is loaded from the project's own compile classpath, so it binds
+ * operations with the same inflector version the application runs with, and the generated
+ * invokers are compiled into the project's output directory.  Relative spec locations in the
+ * configuration are resolved against the project's base directory.
+ */
+@Mojo(name = "generate-adapters", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class GenerateAdaptersMojo extends AbstractMojo {
+    static final String GENERATOR = "io.swagger.inflector.codegen.AdapterGenerator";
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The inflector configuration naming the spec and controller packages.
+     */
+    @Parameter(property = "inflector.config", defaultValue = "${project.basedir}/inflector.yaml")
+    private File config;
+
+    @Parameter(defaultValue = "${project.build.directory}/generated-sources/inflector")
+    private File sourceDirectory;
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}")
+    private File classesDirectory;
+
+    /**
+     * Fails the build when an operation's controller class exists but has no matching method.
+     */
+    @Parameter(property = "inflector.failOnUnboundOperations", defaultValue = "false")
+    private boolean failOnUnboundOperations;
+
+    /**
+     * The Java version the invokers are compiled for, by default the project's
+     * {@code maven.compiler.target}, or 1.7 when that isn't set.
+     */
+    @Parameter(property = "inflector.target", defaultValue = "${maven.compiler.target}")
+    private String target;
+
+    @Parameter(property = "inflector.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("skipping inflector adapter generation");
+            return;
+        }
+        List<String> elements;
+        try {
+            elements = project.getCompileClasspathElements();
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("unable to resolve the compile classpath", e);
+        }
+        URL[] urls = new URL[elements.size()];
+        StringBuilder classpath = new StringBuilder();
+        try {
+            for (int i = 0; i < urls.length; i++) {
+                File element = new File(elements.get(i));
+                urls[i] = element.toURI().toURL();
+                if (i > 0) {
+                    classpath.append(File.pathSeparator);
+                }
+                classpath.append(element.getPath());
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("invalid classpath element", e);
+        }
+
+        File basedir = project.getBasedir();
+        File configFile = config.isAbsolute() ? config : new File(basedir, config.getPath());
+
+        // isolated from the plugin's own classes, only the JDK is shared
+        URLClassLoader loader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        List<?> unbound;
+        try {
+            Method run = loader.loadClass(GENERATOR).getMethod("run", File.class, File.class, File.class, File.class, String.class,
+                    String.class);
+            unbound = (List<?>) run.invoke(null, configFile, basedir, sourceDirectory, classesDirectory, classpath.toString(), target);
+        } catch (ClassNotFoundException e) {
+            throw new MojoExecutionException("swagger-inflector is not on the project's compile classpath", e);
+        } catch (NoSuchMethodException e) {
+            throw new MojoExecutionException("the project's swagger-inflector version doesn't support adapter generation", e);
+        } catch (IllegalAccessException e) {
+            throw new MojoExecutionException("unable to run " + GENERATOR, e);
+        } catch (InvocationTargetException e) {
+            throw new MojoExecutionException("unable to generate adapters: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            thread.setContextClassLoader(previous);
+            try {
+                loader.close();
+            } catch (IOException e) {
+                getLog().debug("unable to close class loader", e);
+            }
+        }
+
+        for (Object operation : unbound) {
+            getLog().warn("no controller method matches " + operation + ", it will be mocked");
+        }
+        if (failOnUnboundOperations && !unbound.isEmpty()) {
+            throw new MojoFailureException(unbound.size() + " operations have a controller without a matching method");
+        }
+    }
+}
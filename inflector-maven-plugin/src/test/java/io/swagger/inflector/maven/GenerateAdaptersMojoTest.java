@@ -0,0 +1,160 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.MavenProject;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class GenerateAdaptersMojoTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String PING = "  /ping:\n"
+            + "    get:\n"
+            + "      x-swagger-router-controller: Ping\n"
+            + "      operationId: ping\n"
+            + "      responses:\n"
+            + "        '200':\n"
+            + "          description: pong\n";
+    private static final String PONG = "  /pong:\n"
+            + "    get:\n"
+            + "      x-swagger-router-controller: Ping\n"
+            + "      operationId: pong\n"
+            + "      responses:\n"
+            + "        '200':\n"
+            + "          description: ping\n";
+
+    private File basedir;
+    private File target;
+
+    @BeforeMethod
+    public void createProject() throws IOException {
+        basedir = Files.createTempDirectory("inflector-maven-plugin").toFile();
+        target = new File(basedir, "target");
+        write(new File(basedir, "inflector.yaml"), "controllerPackage: io.swagger.inflector.maven.controllers\n"
+                + "swaggerUrl: src/main/swagger/swagger.yaml\n");
+    }
+
+    @AfterMethod
+    public void deleteProject() {
+        delete(basedir);
+    }
+
+    @Test
+    public void testGenerateAdapters() throws Exception {
+        write(new File(basedir, "src/main/swagger/swagger.yaml"), spec(PING));
+        createMojo(false).execute();
+
+        assertTrue(new File(target, "generated-sources/inflector/io/swagger/inflector/generated/InflectorInvokers.java").isFile());
+        assertTrue(new File(target, "classes/io/swagger/inflector/generated/InflectorInvokers.class").isFile());
+        assertTrue(new File(target, "classes/META-INF/services/io.swagger.inflector.invocation.InvokerFactory").isFile());
+        assertTrue(new File(target, "classes/META-INF/services/io.swagger.inflector.invocation.OperationBindingFactory").isFile());
+
+        byte[] bytes = Files.readAllBytes(new File(target, "classes/io/swagger/inflector/generated/InflectorInvokers.class").toPath());
+        // compiled for the project's target, major version 51 is Java 7
+        assertEquals(((bytes[6] & 0xff) << 8) | (bytes[7] & 0xff), 51);
+    }
+
+    @Test(expectedExceptions = MojoExecutionException.class)
+    public void testMissingConfiguration() throws Exception {
+        assertTrue(new File(basedir, "inflector.yaml").delete());
+        createMojo(false).execute();
+    }
+
+    @Test(expectedExceptions = MojoExecutionException.class)
+    public void testMissingSpec() throws Exception {
+        createMojo(false).execute();
+    }
+
+    @Test
+    public void testUnboundOperations() throws Exception {
+        write(new File(basedir, "src/main/swagger/swagger.yaml"), spec(PING + PONG));
+        createMojo(false).execute();
+        try {
+            createMojo(true).execute();
+            throw new AssertionError("the unbound operation didn't fail the build");
+        } catch (MojoFailureException e) {
+            assertTrue(e.getMessage().startsWith("1 operations"), e.getMessage());
+        }
+    }
+
+    private GenerateAdaptersMojo createMojo(boolean failOnUnboundOperations) throws Exception {
+        final List<String> classpath = new ArrayList<String>(Arrays.asList(System.getProperty("surefire.test.class.path",
+                System.getProperty("java.class.path")).split(File.pathSeparator)));
+        MavenProject project = new MavenProject() {
+            @Override
+            public List<String> getCompileClasspathElements() {
+                return classpath;
+            }
+        };
+        project.setFile(new File(basedir, "pom.xml"));
+
+        GenerateAdaptersMojo mojo = new GenerateAdaptersMojo();
+        set(mojo, "project", project);
+        // relative, as Maven passes it when set from the command line
+        set(mojo, "config", new File("inflector.yaml"));
+        set(mojo, "sourceDirectory", new File(target, "generated-sources/inflector"));
+        set(mojo, "classesDirectory", new File(target, "classes"));
+        set(mojo, "failOnUnboundOperations", failOnUnboundOperations);
+        set(mojo, "target", "1.7");
+        return mojo;
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static String spec(String paths) {
+        return "swagger: '2.0'\n"
+                + "info:\n"
+                + "  version: 0.0.0\n"
+                + "  title: adapters\n"
+                + "paths:\n"
+                + paths;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,80 @@
+#!/bin/sh
+#
+# Creates and checks an AppCDS archive for an inflector application with a training run, which
+# boots the inflector and sends one request to every operation before exiting.
+#
+#   scripts/appcds.sh train  <archive> <classpath> [config]
+#   scripts/appcds.sh verify <archive> <classpath> [config]
+#
+# The classpath may only contain jars, and the application has to be started with the same
+# classpath, or one starting with it, plus -XX:SharedArchiveFile=<archive>.  JAVA_HOME selects the
+# JDK, which has to be the one running the application.  JDK 13 and later write a dynamic archive
+# at exit; JDK 10 to 12 dump the loaded class list and build a static archive from it.  JDK 10
+# only archives application classes with -XX:+UseAppCDS, which the application then needs too.
+
+set -e
+
+if [ $# -lt 3 ]; then
+    echo "usage: $0 train|verify <archive> <classpath> [config]" >&2
+    exit 1
+fi
+
+MODE=$1
+ARCHIVE=$2
+CLASSPATH=$3
+CONFIG=${4:-inflector.yaml}
+MAIN=io.swagger.inflector.training.TrainingRun
+
+if [ -n "$JAVA_HOME" ]; then
+    JAVA="$JAVA_HOME/bin/java"
+else
+    JAVA=java
+fi
+
+# 1.8.0_392 -> 8, 11.0.21 -> 11, 17 -> 17
+VERSION=$("$JAVA" -version 2>&1 | sed -n 's/.* version "\([0-9.]*\).*/\1/p' | head -1)
+case "$VERSION" in
+    1.*) FEATURE=$(echo "$VERSION" | cut -d. -f2) ;;
+    *) FEATURE=$(echo "$VERSION" | cut -d. -f1) ;;
+esac
+if [ "$FEATURE" -lt 10 ]; then
+    echo "AppCDS for application classes needs JDK 10 or later, found $VERSION" >&2
+    exit 1
+fi
+if [ "$FEATURE" -eq 10 ]; then
+    APPCDS=-XX:+UseAppCDS
+else
+    APPCDS=
+fi
+
+case "$MODE" in
+    train)
+        rm -f "$ARCHIVE"
+        if [ "$FEATURE" -ge 13 ]; then
+            "$JAVA" -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$CLASSPATH" $MAIN "$CONFIG"
+        else
+            "$JAVA" $APPCDS -Xshare:off -XX:DumpLoadedClassList="$ARCHIVE.classlist" -cp "$CLASSPATH" $MAIN "$CONFIG"
+            "$JAVA" $APPCDS -Xshare:dump -XX:SharedClassListFile="$ARCHIVE.classlist" -XX:SharedArchiveFile="$ARCHIVE" \
+                -cp "$CLASSPATH"
+        fi
+        echo "wrote $ARCHIVE"
+        ;;
+    verify)
+        LOG=$(mktemp)
+        # -Xshare:on fails instead of silently running without the archive
+        "$JAVA" $APPCDS -Xshare:on -XX:SharedArchiveFile="$ARCHIVE" -Xlog:class+load=info:file="$LOG" -cp "$CLASSPATH" $MAIN "$CONFIG"
+        TOTAL=$(grep -c 'source:' "$LOG" || true)
+        SHARED=$(grep -c 'source: shared objects file' "$LOG" || true)
+        APP=$(grep 'source: shared objects file' "$LOG" | grep -c ' io\.swagger\.' || true)
+        rm -f "$LOG"
+        echo "$SHARED of $TOTAL classes loaded from $ARCHIVE, $APP of them from io.swagger"
+        if [ "$APP" -eq 0 ]; then
+            echo "the archive doesn't hold the application's classes" >&2
+            exit 1
+        fi
+        ;;
+    *)
+        echo "unknown mode $MODE, expected train or verify" >&2
+        exit 1
+        ;;
+esac
@@ -0,0 +1,104 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector;
+
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds lazily bound operations on a background thread once the container has started, so
+ * their first requests don't pay for it.  Operations already bound by a request are skipped.
+ */
+public class LazyBindingWarmup implements ContainerLifecycleListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyBindingWarmup.class);
+
+    private final List<SwaggerOperationController> controllers;
+    private final Runnable onComplete;
+    private Thread thread;
+
+    /**
+     * @param onComplete run on the warm-up thread once every operation is bound, or null
+     */
+    public LazyBindingWarmup(List<SwaggerOperationController> controllers, Runnable onComplete) {
+        this.controllers = controllers;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public synchronized void onStartup(Container container) {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                warmUp();
+            }
+        }, "inflector-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    @Override
+    public void onReload(Container container) {
+    }
+
+    @Override
+    public synchronized void onShutdown(Container container) {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Binds every operation on the calling thread.
+     *
+     * @return the number of operations bound, or -1 if interrupted
+     */
+    public int warmUp() {
+        long start = System.nanoTime();
+        int count = 0;
+        for (SwaggerOperationController controller : controllers) {
+            if (Thread.currentThread().isInterrupted()) {
+                LOGGER.debug("warm-up interrupted after " + count + " operations");
+                return -1;
+            }
+            if (controller.isBound()) {
+                continue;
+            }
+            try {
+                controller.bind();
+                count += 1;
+            } catch (RuntimeException e) {
+                LOGGER.warn("unable to bind operation during warm-up", e);
+            }
+        }
+        LOGGER.info("warmed up " + count + " operations in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        if (onComplete != null) {
+            onComplete.run();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector;
+
+import io.swagger.inflector.config.Configuration;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the spec and configuration files and reloads the application when they change.  The new
+ * {@link SwaggerInflector} is built on the watcher's thread, taking over the controllers of
+ * unchanged operations, and then handed to {@link Container#reload(org.glassfish.jersey.server.ResourceConfig)},
+ * which swaps it in once its routes are built.  Requests already running finish on the previous
+ * application.  If the files can't be read or the spec doesn't parse, the previous application
+ * keeps serving.
+ */
+public class SpecWatcher implements ContainerLifecycleListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecWatcher.class);
+
+    private final long interval;
+    private final Map<File, Stamp> stamps = new HashMap<File, Stamp>();
+    private volatile SwaggerInflector current;
+    private volatile SwaggerInflector pending;
+    private volatile boolean reloading;
+    private Container container;
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param interval milliseconds between checks
+     */
+    public SpecWatcher(SwaggerInflector inflector, long interval) {
+        this.current = inflector;
+        this.interval = interval;
+        List<File> files = getFiles(inflector.getInflectorConfiguration());
+        if (files.isEmpty()) {
+            LOGGER.warn("spec " + inflector.getInflectorConfiguration().getSwaggerUrls() + " is not a local file, it won't be reloaded");
+        }
+        for (File file : files) {
+            stamps.put(file, Stamp.of(file, null));
+        }
+    }
+
+    /**
+     * @return the application currently serving requests
+     */
+    public SwaggerInflector getInflector() {
+        return current;
+    }
+
+    @Override
+    public synchronized void onStartup(Container container) {
+        this.container = container;
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "inflector-spec-watcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    check();
+                } catch (RuntimeException e) {
+                    LOGGER.error("unable to check the spec for changes", e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void onReload(Container container) {
+        this.container = container;
+        if (pending != null) {
+            current = pending;
+            pending = null;
+        }
+    }
+
+    @Override
+    public void onShutdown(Container container) {
+        // the previous application is shut down by our own reload, keep watching
+        if (reloading) {
+            return;
+        }
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Reloads the application if the content of the spec or configuration file changed since
+     * the last check.  Files whose modification time changed without their content changing
+     * are not reloaded.
+     *
+     * @return true if the application was reloaded
+     */
+    public synchronized boolean check() {
+        boolean changed = false;
+        for (File file : getFiles(current.getInflectorConfiguration())) {
+            Stamp previous = stamps.get(file);
+            Stamp stamp = Stamp.of(file, previous);
+            stamps.put(file, stamp);
+            if (previous == null || !Arrays.equals(previous.hash, stamp.hash)) {
+                LOGGER.info(file + " changed");
+                changed = true;
+            }
+        }
+        return changed && reload();
+    }
+
+    /**
+     * Reads the configuration and spec again and swaps in the resulting application.
+     *
+     * @return true if the new application is serving requests
+     */
+    public synchronized boolean reload() {
+        long start = System.nanoTime();
+        SwaggerInflector previous = current;
+        Configuration config = previous.getInflectorConfiguration();
+        if (config.getLocation() != null) {
+            try {
+                config = Configuration.readFile(new File(config.getLocation()));
+            } catch (IOException e) {
+                LOGGER.error("unable to read configuration " + config.getLocation() + ", keeping the previous spec", e);
+                return false;
+            }
+        }
+        SwaggerInflector next;
+        try {
+            next = new SwaggerInflector(config, previous);
+        } catch (RuntimeException e) {
+            LOGGER.error("unable to load spec " + config.getSwaggerUrls() + ", keeping the previous spec", e);
+            return false;
+        }
+        if (next.getSwaggers().size() < config.getSwaggerUrls().size()) {
+            LOGGER.error("unable to parse spec " + config.getSwaggerUrls() + ", keeping the previous spec");
+            return false;
+        }
+        Container target = container;
+        if (target == null) {
+            // not started by a container, there are no routes to swap
+            current = next;
+        } else {
+            pending = next;
+            reloading = true;
+            try {
+                target.reload(next);
+            } catch (RuntimeException e) {
+                LOGGER.error("unable to reload the application, keeping the previous spec", e);
+            } finally {
+                reloading = false;
+                pending = null;
+            }
+            if (current != next) {
+                LOGGER.error("the container did not reload the application, keeping the previous spec");
+                return false;
+            }
+        }
+        int reused = 0;
+        for (SwaggerOperationController controller : next.getControllers().values()) {
+            if (previous.getControllers().containsValue(controller)) {
+                reused += 1;
+            }
+        }
+        LOGGER.info("reloaded " + config.getSwaggerUrls() + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                + "ms, rebound " + (next.getControllers().size() - reused) + " of " + next.getControllers().size() + " operations");
+        return true;
+    }
+
+    /**
+     * @return the configuration file, if it was read from one, and the specs which are local files
+     */
+    static List<File> getFiles(Configuration config) {
+        List<File> files = new ArrayList<File>();
+        if (config.getLocation() != null) {
+            files.add(new File(config.getLocation()).getAbsoluteFile());
+        }
+        for (String url : config.getSwaggerUrls()) {
+            File spec = getSpecFile(url);
+            if (spec != null) {
+                files.add(spec);
+            }
+        }
+        return files;
+    }
+
+    private static File getSpecFile(String location) {
+        if (location == null) {
+            return null;
+        }
+        File file = new File(location);
+        if (file.isFile()) {
+            return file.getAbsoluteFile();
+        }
+        URL url = null;
+        try {
+            if (location.startsWith("file:")) {
+                url = new URL(location);
+            } else if (!location.contains("://")) {
+                url = SpecWatcher.class.getClassLoader().getResource(location);
+            }
+            if (url != null && "file".equals(url.getProtocol())) {
+                return new File(url.toURI()).getAbsoluteFile();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("unable to resolve " + location, e);
+        } catch (URISyntaxException e) {
+            LOGGER.debug("unable to resolve " + location, e);
+        }
+        return null;
+    }
+
+    /**
+     * Modification time, length and content hash of a file.  The hash is only computed again
+     * when the time or length changed.
+     */
+    static class Stamp {
+        final long lastModified;
+        final long length;
+        final byte[] hash;
+
+        Stamp(long lastModified, long length, byte[] hash) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.hash = hash;
+        }
+
+        static Stamp of(File file, Stamp previous) {
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if (previous != null && previous.lastModified == lastModified && previous.length == length) {
+                return previous;
+            }
+            return new Stamp(lastModified, length, hash(file));
+        }
+
+        private static byte[] hash(File file) {
+            if (!file.isFile()) {
+                return null;
+            }
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file.toPath()));
+            } catch (IOException e) {
+                LOGGER.debug("unable to read " + file, e);
+                return null;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
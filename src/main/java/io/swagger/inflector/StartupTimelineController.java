@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.inflector.utils.StartupTimeline;
+import io.swagger.util.Json;
+import org.glassfish.jersey.process.Inflector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Serves the {@link StartupTimeline} as JSON.
+ */
+public class StartupTimelineController implements Inflector<ContainerRequestContext, Response> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimelineController.class);
+
+    private final StartupTimeline timeline;
+
+    public StartupTimelineController(StartupTimeline timeline) {
+        this.timeline = timeline;
+    }
+
+    @Override
+    public Response apply(ContainerRequestContext ctx) {
+        try {
+            return Response.ok(Json.mapper().writeValueAsBytes(timeline), MediaType.APPLICATION_JSON_TYPE).build();
+        } catch (JsonProcessingException e) {
+            LOGGER.error("unable to serialize the startup timeline", e);
+            return Response.serverError().build();
+        }
+    }
+}
@@ -16,105 +16,365 @@
 
 package io.swagger.inflector;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.jaxrs.cbor.JacksonCBORProvider;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
 import com.fasterxml.jackson.jaxrs.xml.JacksonJaxbXMLProvider;
 import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.invocation.ControllerExecutors;
 import io.swagger.inflector.processors.ExampleSerializer;
+import io.swagger.inflector.processors.JacksonProcessor;
 import io.swagger.inflector.processors.JsonExampleSerializer;
+import io.swagger.inflector.processors.StreamingEntitySerializer;
+import io.swagger.inflector.snapshot.OperationSnapshot;
+import io.swagger.inflector.snapshot.SnapshotStore;
+import io.swagger.inflector.snapshot.StartupSnapshot;
+import io.swagger.inflector.utils.ClassIndex;
+import io.swagger.inflector.utils.StartupTimeline;
 import io.swagger.jaxrs.listing.SwaggerSerializers;
 import io.swagger.models.Model;
 import io.swagger.models.Operation;
 import io.swagger.models.Path;
 import io.swagger.models.Swagger;
 import io.swagger.parser.SwaggerParser;
+import io.swagger.parser.SwaggerResolver;
 import io.swagger.util.Json;
 import io.swagger.util.Yaml;
 import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class SwaggerInflector extends ResourceConfig {
     private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerInflector.class);
+    private static boolean exampleSerializerRegistered;
     private Configuration config;
+    private final ClassIndex classIndex = new ClassIndex();
+    private final StartupTimeline timeline = new StartupTimeline(classIndex);
+    private final Map<String, SwaggerOperationController> controllers = new LinkedHashMap<String, SwaggerOperationController>();
+    private final Map<String, String> fingerprints = new HashMap<String, String>();
+    private final Map<String, String> bindingKeys = new HashMap<String, String>();
+    private final List<Swagger> swaggers = new ArrayList<Swagger>();
+    private SpecWatcher watcher;
 
     public SwaggerInflector() {
         this(Configuration.read());
     }
 
     public SwaggerInflector(Configuration configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * Creates the application for a changed spec or configuration, taking over the controllers
+     * of {@code previous} whose operations, definitions and configuration are unchanged, and its
+     * spec watcher.
+     *
+     * @param previous the application being replaced, or null
+     */
+    public SwaggerInflector(Configuration configuration, SwaggerInflector previous) {
         config = configuration;
-        Swagger swagger = new SwaggerParser().read(config.getSwaggerUrl());
+        if (previous != null) {
+            watcher = previous.watcher;
+        } else if (config.getSpecReloadInterval() > 0) {
+            watcher = new SpecWatcher(this, config.getSpecReloadInterval());
+        }
+        if (config.isTracePinnedThreads()) {
+            ControllerExecutors.enablePinningDiagnostics();
+        }
+        if (config.isJacksonAfterburner()) {
+            StartupTimeline.Span phase = timeline.phase("enable afterburner");
+            // before any operation creates its body readers
+            JacksonProcessor.enableAfterburner();
+            phase.end();
+        }
+        for (Configuration spec : config.getSpecConfigurations()) {
+            addSpec(spec, previous);
+        }
+        StartupTimeline.Span phase = timeline.phase("register providers");
+        // JSON
+        register(JacksonJsonProvider.class);
+
+        // XML
+        register(JacksonJaxbXMLProvider.class);
+
+        // Smile and CBOR
+        register(JacksonSmileProvider.class);
+        register(JacksonCBORProvider.class);
+
+        register(new MultiPartFeature());
+
+        // Swagger serializers
+        register(SwaggerSerializers.class);
+
+        // XML mapper
+        registerExampleSerializer();
+
+        // Example serializer
+        register(ExampleSerializer.class);
+
+        // Iterator and Stream results
+        register(StreamingEntitySerializer.class);
+
+        if (watcher != null) {
+            register(watcher);
+        }
+        phase.end();
+
+        timeline.finish();
+        timeline.log();
+    }
+
+    /**
+     * Registers the operations and listings of one spec, using the application's class index and
+     * timeline.
+     */
+    private void addSpec(Configuration spec, SwaggerInflector previous) {
+        SnapshotStore snapshotStore = null;
+        StartupSnapshot snapshot = null;
+        if (spec.getStartupSnapshot() != null) {
+            StartupTimeline.Span phase = timeline.phase("read snapshot");
+            snapshotStore = new SnapshotStore(spec);
+            snapshot = snapshotStore.read();
+            phase.end(snapshot != null ? "restored" : "missing or stale");
+        }
+        Swagger swagger = snapshot != null ? snapshot.getSwagger() : readSwagger(spec);
         if (swagger != null) {
+            if (spec.getBasePath() != null) {
+                // the listings advertise where the operations are served
+                swagger.setBasePath(spec.getBasePath());
+            }
+            swaggers.add(swagger);
             Map<String, Path> paths = swagger.getPaths();
             Map<String, Model> definitions = swagger.getDefinitions();
+            List<Resource.Builder> builders = new ArrayList<Resource.Builder>();
+            List<PendingOperation> operations = new ArrayList<PendingOperation>();
             for (String pathString : paths.keySet()) {
                 Path path = paths.get(pathString);
+                String route = basePath(swagger.getBasePath(), pathString);
                 final Resource.Builder builder = Resource.builder();
-                builder.path(basePath(swagger.getBasePath(), pathString));
-                Operation operation;
-
-                operation = path.getGet();
-                if (operation != null) {
-                    addOperation(pathString, builder, HttpMethod.GET, operation, definitions);
-                }
-                operation = path.getPost();
-                if (operation != null) {
-                    addOperation(pathString, builder, HttpMethod.POST, operation, definitions);
+                builder.path(route);
+                builders.add(builder);
+                for (Map.Entry<String, Operation> entry : getOperations(path).entrySet()) {
+                    operations.add(new PendingOperation(pathString, route, builder, entry.getKey(), entry.getValue()));
                 }
-                operation = path.getPut();
-                if (operation != null) {
-                    addOperation(pathString, builder, HttpMethod.PUT, operation, definitions);
-                }
-                operation = path.getDelete();
-                if (operation != null) {
-                    addOperation(pathString, builder, HttpMethod.DELETE, operation, definitions);
+            }
+            if (snapshot != null) {
+                for (PendingOperation operation : operations) {
+                    operation.snapshot = snapshot.getOperation(operation.path, operation.method);
                 }
-                operation = path.getOptions();
-                if (operation != null) {
-                    addOperation(pathString, builder, HttpMethod.OPTIONS, operation, definitions);
+            }
+            int reused = 0;
+            if (watcher != null) {
+                String bindingKey = bindingKey(spec, definitions);
+                for (PendingOperation operation : operations) {
+                    bindingKeys.put(operation.key(), bindingKey);
+                    fingerprints.put(operation.key(), fingerprint(operation.operation));
                 }
-                operation = path.getPatch();
-                if (operation != null) {
-                    addOperation(pathString, builder, "PATCH", operation, definitions);
+                if (previous != null) {
+                    reused = reuseControllers(previous, operations);
                 }
+            }
+            StartupTimeline.Span phase = timeline.phase("bind operations");
+            createControllers(spec, operations, definitions, phase);
+            phase.end(operations.size() + " operations" + (reused > 0 ? ", " + reused + " reused" : ""));
+            for (PendingOperation operation : operations) {
+                controllers.put(operation.key(), operation.controller);
+            }
+            phase = timeline.phase("register resources");
+            for (PendingOperation operation : operations) {
+                addOperation(operation);
+            }
+            for (Resource.Builder builder : builders) {
                 registerResources(builder.build());
             }
+            phase.end();
+
+            phase = timeline.phase("register listings");
 
             // enable swagger JSON
             enableSwaggerJSON(swagger);
 
             // enable swagger YAML
             enableSwaggerYAML(swagger);
+
+            if (spec.getStartupTimelinePath() != null) {
+                enableStartupTimeline(swagger, spec.getStartupTimelinePath());
+            }
+            phase.end();
+
+            boolean writeSnapshot = snapshotStore != null && snapshot == null;
+            if (spec.isLazyBinding()) {
+                LOGGER.info("registered " + operations.size() + " operations, binding them on their first request");
+                if (spec.isLazyBindingWarmup()) {
+                    register(createWarmup(operations, writeSnapshot ? snapshotStore : null, swagger));
+                } else if (writeSnapshot) {
+                    LOGGER.info("not writing a startup snapshot, operations are bound lazily without warm-up");
+                }
+            } else if (writeSnapshot) {
+                phase = timeline.phase("write snapshot");
+                writeSnapshot(snapshotStore, swagger, operations);
+                phase.end();
+            }
         } else {
-            LOGGER.error("No swagger definition detected!  Not much to do...");
+            LOGGER.error("No swagger definition detected at " + spec.getSwaggerUrl() + "!  Not much to do...");
         }
-        // JSON
-        register(JacksonJsonProvider.class);
+    }
 
-        // XML
-        register(JacksonJaxbXMLProvider.class);
+    /**
+     * @return where the time of the constructor went, and how long each operation took to bind
+     */
+    public StartupTimeline getStartupTimeline() {
+        return timeline;
+    }
 
-        register(new MultiPartFeature());
+    public Configuration getInflectorConfiguration() {
+        return config;
+    }
 
-        // Swagger serializers
-        register(SwaggerSerializers.class);
+    /**
+     * @return the first resolved spec, or null if none could be read
+     */
+    public Swagger getSwagger() {
+        return swaggers.isEmpty() ? null : swaggers.get(0);
+    }
 
-        // XML mapper
+    /**
+     * @return the specs which could be read, in the order they are configured
+     */
+    public List<Swagger> getSwaggers() {
+        return Collections.unmodifiableList(swaggers);
+    }
+
+    /**
+     * @return the controllers of the specs' operations, by method and path including the base
+     * path, e.g. `GET /api/hello`
+     */
+    public Map<String, SwaggerOperationController> getControllers() {
+        return Collections.unmodifiableMap(controllers);
+    }
+
+    /**
+     * @return the watcher reloading the spec and configuration, or null if `specReloadInterval`
+     * is 0
+     */
+    public SpecWatcher getSpecWatcher() {
+        return watcher;
+    }
+
+    private static synchronized void registerExampleSerializer() {
+        // the mappers are shared, so reloads don't add the module again
+        if (exampleSerializerRegistered) {
+            return;
+        }
         SimpleModule simpleModule = new SimpleModule();
         simpleModule.addSerializer(new JsonExampleSerializer());
         Json.mapper().registerModule(simpleModule);
         Yaml.mapper().registerModule(simpleModule);
+        exampleSerializerRegistered = true;
+    }
 
-        // Example serializer
-        register(ExampleSerializer.class);
+    /**
+     * Takes over the controllers of the previous application for operations which are unchanged,
+     * as long as the definitions and configuration they were bound with are unchanged too.
+     *
+     * @return the number of controllers taken over
+     */
+    private int reuseControllers(SwaggerInflector previous, List<PendingOperation> operations) {
+        int reused = 0;
+        for (PendingOperation operation : operations) {
+            String key = operation.key();
+            String bindingKey = bindingKeys.get(key);
+            String fingerprint = fingerprints.get(key);
+            SwaggerOperationController controller = previous.controllers.get(key);
+            if (bindingKey != null && fingerprint != null && controller != null
+                    && bindingKey.equals(previous.bindingKeys.get(key)) && fingerprint.equals(previous.fingerprints.get(key))) {
+                operation.controller = controller;
+                reused += 1;
+            }
+        }
+        return reused;
+    }
+
+    private static String bindingKey(Configuration spec, Map<String, Model> definitions) {
+        String configuration = fingerprint(spec);
+        String models = fingerprint(definitions);
+        if (configuration == null || models == null) {
+            return null;
+        }
+        return configuration + models;
+    }
+
+    private static String fingerprint(Object value) {
+        try {
+            return Json.mapper().writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            LOGGER.debug("unable to serialize " + value, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the spec and resolves its references as {@link SwaggerParser#read(String)} does, in
+     * separate phases of the timeline.
+     */
+    private Swagger readSwagger(Configuration spec) {
+        StartupTimeline.Span phase = timeline.phase("read spec");
+        Swagger swagger = new SwaggerParser().read(spec.getSwaggerUrl(), null, false);
+        phase.end(spec.getSwaggerUrl());
+        if (swagger != null) {
+            phase = timeline.phase("resolve references");
+            swagger = new SwaggerResolver().resolve(swagger, null);
+            phase.end();
+        }
+        return swagger;
+    }
+
+    /**
+     * @return the operations of the path by HTTP method, in the order they are registered
+     */
+    public static Map<String, Operation> getOperations(Path path) {
+        Map<String, Operation> operations = new LinkedHashMap<String, Operation>();
+        if (path.getGet() != null) {
+            operations.put(HttpMethod.GET, path.getGet());
+        }
+        if (path.getPost() != null) {
+            operations.put(HttpMethod.POST, path.getPost());
+        }
+        if (path.getPut() != null) {
+            operations.put(HttpMethod.PUT, path.getPut());
+        }
+        if (path.getDelete() != null) {
+            operations.put(HttpMethod.DELETE, path.getDelete());
+        }
+        if (path.getOptions() != null) {
+            operations.put(HttpMethod.OPTIONS, path.getOptions());
+        }
+        if (path.getPatch() != null) {
+            operations.put("PATCH", path.getPatch());
+        }
+        return operations;
     }
 
     private String basePath(String basePath, String path) {
@@ -129,7 +389,18 @@ public class SwaggerInflector extends ResourceConfig {
         builder.path(basePath(swagger.getBasePath(), "/swagger.json"))
                 .addMethod(HttpMethod.GET)
                 .produces(MediaType.APPLICATION_JSON)
-                .handledBy(new SwaggerResourceController(swagger))
+                .handledBy(new SwaggerResourceController(swagger, MediaType.APPLICATION_JSON_TYPE))
+                .build();
+
+        registerResources(builder.build());
+    }
+
+    private void enableStartupTimeline(Swagger swagger, String path) {
+        final Resource.Builder builder = Resource.builder();
+        builder.path(basePath(swagger.getBasePath(), path))
+                .addMethod(HttpMethod.GET)
+                .produces(MediaType.APPLICATION_JSON)
+                .handledBy(new StartupTimelineController(timeline))
                 .build();
 
         registerResources(builder.build());
@@ -140,15 +411,165 @@ public class SwaggerInflector extends ResourceConfig {
         builder.path(basePath(swagger.getBasePath(), "/swagger.yaml"))
                 .addMethod(HttpMethod.GET)
                 .produces("application/yaml")
-                .handledBy(new SwaggerResourceController(swagger))
+                .handledBy(new SwaggerResourceController(swagger, MediaType.valueOf("application/yaml")))
                 .build();
 
         registerResources(builder.build());
     }
 
-    private void addOperation(String pathString, Resource.Builder builder, String method, Operation operation, Map<String, Model> definitions) {
+    /**
+     * Binds the operations to their controllers, in parallel unless `startupParallelism` is 1.
+     * Binding is dominated by class loading and reflection, which don't depend on each other
+     * between operations.  With `lazyBinding` the controllers are only created here.
+     */
+    private void createControllers(Configuration spec, List<PendingOperation> operations, Map<String, Model> definitions,
+                                   StartupTimeline.Span phase) {
+        int parallelism = spec.getStartupParallelism();
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        List<PendingOperation> unbound = new ArrayList<PendingOperation>(operations.size());
+        for (PendingOperation operation : operations) {
+            if (operation.controller == null) {
+                unbound.add(operation);
+            }
+        }
+        operations = unbound;
+        // lazily bound operations don't do anything expensive until they are bound
+        if (parallelism == 1 || operations.size() < 2 || spec.isLazyBinding()) {
+            for (PendingOperation operation : operations) {
+                operation.call(spec, classIndex, definitions, timeline);
+            }
+            return;
+        }
+        List<Callable<SwaggerOperationController>> tasks = new ArrayList<Callable<SwaggerOperationController>>(operations.size());
+        for (PendingOperation operation : operations) {
+            tasks.add(operation.task(spec, classIndex, definitions, timeline));
+        }
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, operations.size()));
+        try {
+            for (Future<SwaggerOperationController> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+            for (PendingOperation operation : operations) {
+                phase.addAllocatedBytes(operation.timing.getAllocatedBytes());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while binding operations", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("unable to bind operation", cause);
+        } finally {
+            pool.shutdown();
+        }
+        LOGGER.debug("bound " + operations.size() + " operations on " + pool.getParallelism() + " threads in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+    }
+
+    private static List<SwaggerOperationController> getControllers(List<PendingOperation> operations) {
+        List<SwaggerOperationController> controllers = new ArrayList<SwaggerOperationController>(operations.size());
+        for (PendingOperation operation : operations) {
+            controllers.add(operation.controller);
+        }
+        return controllers;
+    }
+
+    private LazyBindingWarmup createWarmup(final List<PendingOperation> operations, final SnapshotStore snapshotStore,
+                                           final Swagger swagger) {
+        Runnable onComplete = null;
+        if (snapshotStore != null) {
+            onComplete = new Runnable() {
+                @Override
+                public void run() {
+                    writeSnapshot(snapshotStore, swagger, operations);
+                }
+            };
+        }
+        return new LazyBindingWarmup(getControllers(operations), onComplete);
+    }
+
+    private void writeSnapshot(SnapshotStore snapshotStore, Swagger swagger, List<PendingOperation> operations) {
+        StartupSnapshot snapshot = new StartupSnapshot();
+        snapshot.setSwagger(swagger);
+        List<OperationSnapshot> bindings = new ArrayList<OperationSnapshot>(operations.size());
+        for (PendingOperation operation : operations) {
+            bindings.add(operation.controller.snapshot());
+        }
+        snapshot.setOperations(bindings);
+        snapshotStore.write(snapshot);
+    }
+
+    private void addOperation(PendingOperation operation) {
         // TODO: handle other content types
-        LOGGER.debug("adding operation `" + pathString + "` " + method);
-        builder.addMethod(method).handledBy(new SwaggerOperationController(config, pathString, method, operation, definitions));
+        LOGGER.debug("adding operation `" + operation.path + "` " + operation.method);
+        SwaggerOperationController controller = operation.controller;
+        ResourceMethod.Builder methodBuilder = operation.builder.addMethod(operation.method);
+        if (controller.isSuspended()) {
+            methodBuilder.suspended(AsyncResponse.NO_TIMEOUT, TimeUnit.SECONDS);
+        }
+        methodBuilder.handledBy(controller);
+    }
+
+    /**
+     * An operation of the spec, waiting for its controller to be created.
+     */
+    static class PendingOperation {
+        final String path;
+        final String route;
+        final Resource.Builder builder;
+        final String method;
+        final Operation operation;
+        OperationSnapshot snapshot;
+        SwaggerOperationController controller;
+        StartupTimeline.Entry timing;
+
+        PendingOperation(String path, String route, Resource.Builder builder, String method, Operation operation) {
+            this.path = path;
+            this.route = route;
+            this.builder = builder;
+            this.method = method;
+            this.operation = operation;
+        }
+
+        String key() {
+            return method + " " + route;
+        }
+
+        SwaggerOperationController call(Configuration config, ClassIndex classIndex, Map<String, Model> definitions,
+                                        StartupTimeline timeline) {
+            StartupTimeline.Span span = timeline.operation(method, route);
+            controller = new SwaggerOperationController(config, path, method, operation, definitions, classIndex, snapshot);
+            timing = span.end(describe(controller));
+            return controller;
+        }
+
+        Callable<SwaggerOperationController> task(final Configuration config, final ClassIndex classIndex, final Map<String, Model> definitions,
+                                                  final StartupTimeline timeline) {
+            return new Callable<SwaggerOperationController>() {
+                @Override
+                public SwaggerOperationController call() {
+                    return PendingOperation.this.call(config, classIndex, definitions, timeline);
+                }
+            };
+        }
+
+        private static String describe(SwaggerOperationController controller) {
+            if (!controller.isBound()) {
+                return "bound lazily";
+            }
+            Method method = controller.getMethod();
+            if (method == null) {
+                return "mock response";
+            }
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
     }
 }
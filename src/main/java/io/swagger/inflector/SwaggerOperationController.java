@@ -16,36 +16,51 @@
 
 package io.swagger.inflector;
 
+import io.swagger.inflector.binding.BindingContext;
+import io.swagger.inflector.binding.BindingPlan;
+import io.swagger.inflector.binding.MultipartParser;
+import io.swagger.inflector.binding.ParameterBinder;
+import io.swagger.inflector.binding.ValueCoercer;
 import io.swagger.inflector.config.Configuration;
-import io.swagger.inflector.examples.ExampleBuilder;
+import io.swagger.inflector.invocation.CompletionStages;
+import io.swagger.inflector.invocation.ControllerExecutors;
+import io.swagger.inflector.invocation.ControllerInvoker;
+import io.swagger.inflector.invocation.ControllerInvokers;
+import io.swagger.inflector.invocation.OperationBinding;
 import io.swagger.inflector.models.ApiError;
 import io.swagger.inflector.models.RequestContext;
 import io.swagger.inflector.models.ResponseContext;
-import io.swagger.inflector.processors.EntityProcessorFactory;
+import io.swagger.inflector.processors.ExampleSerializer;
+import io.swagger.inflector.processors.MockResponse;
+import io.swagger.inflector.processors.StreamingEntity;
+import io.swagger.inflector.snapshot.OperationSnapshot;
+import io.swagger.inflector.utils.Bulkhead;
+import io.swagger.inflector.utils.ClassIndex;
 import io.swagger.inflector.utils.ReflectionUtils;
 import io.swagger.models.Model;
 import io.swagger.models.Operation;
 import io.swagger.models.parameters.Parameter;
-import io.swagger.models.parameters.QueryParameter;
-import io.swagger.models.parameters.SerializableParameter;
-import io.swagger.models.properties.Property;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.CloseableService;
+import org.glassfish.jersey.server.internal.process.AsyncContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
-import javax.ws.rs.core.UriInfo;
-import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 public class SwaggerOperationController extends ReflectionUtils implements Inflector<ContainerRequestContext, Response> {
     private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerOperationController.class);
@@ -56,170 +71,402 @@ public class SwaggerOperationController extends ReflectionUtils implements Infle
     private Object controller = null;
     private Method method = null;
     private Class<?>[] parameterClasses = null;
+    private BindingPlan bindingPlan = null;
+    private ControllerInvoker invoker = null;
+    private boolean async = false;
+    private ExecutorService executor = null;
+    private Bulkhead bulkhead = null;
+    private volatile MockResponse mockResponse = null;
+    private final boolean lazy;
+    private volatile boolean bound = false;
+    private OperationSnapshot snapshot;
+    @Inject
+    private Provider<AsyncContext> asyncContextProvider;
+    @Inject
+    private Provider<CloseableService> closeableServiceProvider;
     private Map<String, Model> definitions;
 
     public SwaggerOperationController(Configuration config, String path, String httpMethod, Operation operation, Map<String, Model> definitions) {
+        this(config, path, httpMethod, operation, definitions, new ClassIndex());
+    }
+
+    /**
+     * @param classIndex class and method lookups shared with the application's other operations
+     */
+    public SwaggerOperationController(Configuration config, String path, String httpMethod, Operation operation, Map<String, Model> definitions,
+                                      ClassIndex classIndex) {
+        this(config, path, httpMethod, operation, definitions, classIndex, null);
+    }
+
+    /**
+     * @param snapshot the binding resolved by an earlier boot, or null to resolve it by reflection
+     */
+    public SwaggerOperationController(Configuration config, String path, String httpMethod, Operation operation, Map<String, Model> definitions,
+                                      ClassIndex classIndex, OperationSnapshot snapshot) {
         this.setConfiguration(config);
+        this.setClassIndex(classIndex);
         this.path = path;
         this.httpMethod = httpMethod;
         this.operation = operation;
         this.definitions = definitions;
+        this.bulkhead = createBulkhead(operation);
+        this.lazy = config.isLazyBinding();
+        this.snapshot = snapshot;
+        if (!lazy) {
+            bind();
+        }
+    }
 
-        Class<?>[] args = getOperationParameterClasses(operation, definitions);
-        StringBuilder builder = new StringBuilder();
-
-        builder.append(getMethodName(path, httpMethod, operation))
-                .append("(");
-
-        for (int i = 0; i < args.length; i++) {
-            if (i == 0) {
-                builder.append(RequestContext.class.getCanonicalName() + " request");
-            } else {
-                builder.append(", ");
-                builder.append(args[i].getName());
-                builder.append(" ").append(operation.getParameters().get(i - 1).getName());
+    /**
+     * Resolves the controller method, parameter classes and invoker of the operation.  This runs
+     * from the constructor, or with `lazyBinding` on the operation's first request, and only once.
+     */
+    public void bind() {
+        if (!bound) {
+            synchronized (this) {
+                if (!bound) {
+                    doBind();
+                    bound = true;
+                }
             }
         }
-        builder.append(")");
+    }
 
-        LOGGER.debug("looking for operation: " + builder.toString());
+    /**
+     * @return true once the operation has been bound to its controller method or mock response
+     */
+    public boolean isBound() {
+        return bound;
+    }
+
+    private void doBind() {
+        if (snapshot != null && restore(snapshot)) {
+            LOGGER.debug("restored binding of " + httpMethod + " " + path + " from snapshot");
+        } else {
+            Class<?>[] args = getOperationParameterClasses(operation, definitions);
+            if (LOGGER.isDebugEnabled()) {
+                StringBuilder builder = new StringBuilder();
+
+                builder.append(getMethodName(path, httpMethod, operation))
+                        .append("(");
+
+                for (int i = 0; i < args.length; i++) {
+                    if (i == 0) {
+                        builder.append(RequestContext.class.getCanonicalName() + " request");
+                    } else {
+                        builder.append(", ");
+                        builder.append(args[i].getName());
+                        builder.append(" ").append(operation.getParameters().get(i - 1).getName());
+                    }
+                }
+                builder.append(")");
+
+                LOGGER.debug("looking for operation: " + builder.toString());
+            }
 
-        this.method = detectMethod(operation);
+            this.method = findGeneratedMethod(operation, args);
+            if (method == null) {
+                this.method = detectMethod(operation, args);
+            }
+        }
+        this.snapshot = null;
         if (method == null) {
             LOGGER.debug("no method to map to, using mock response");
+            if (mockResponse == null && config.isEagerMockResponses()) {
+                this.mockResponse = MockResponse.create(operation, definitions).prepare();
+            }
+        } else {
+            MultipartParser multipartParser = new MultipartParser(config.getMultipartMemoryThreshold(), config.getMultipartTempDir());
+            this.bindingPlan = BindingPlan.create(this, operation, getBindingClasses(method), definitions, multipartParser);
+            this.invoker = ControllerInvokers.create(method, controller);
+            this.async = CompletionStages.isCompletionStage(method.getReturnType());
+            String executorMode = getExecutorMode(operation);
+            this.executor = ControllerExecutors.forMode(executorMode);
+            LOGGER.info("bound " + httpMethod + " " + path + " to " + method + " using " + invoker.getMode() + " invocation"
+                    + (executor != null ? " on " + executorMode + " threads" : "")
+                    + (async ? " (asynchronous)" : ""));
         }
     }
 
     public Method detectMethod(Operation operation) {
+        return detectMethod(operation, getOperationParameterClasses(operation, this.definitions));
+    }
+
+    private Method detectMethod(Operation operation, Class<?>[] args) {
+        OperationBinding binding = findOperationBinding(path, httpMethod, operation, args);
+        if (binding == null) {
+            return null;
+        }
+        try {
+            this.controller = binding.getControllerClass().newInstance();
+            this.parameterClasses = args;
+            LOGGER.debug("matched " + binding.getMethod());
+            return binding.getMethod();
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+        } catch (InstantiationException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Uses the binding recorded at build time by {@link io.swagger.inflector.codegen.AdapterGenerator},
+     * if there is one for the operation, instead of scanning the controller.
+     */
+    private Method findGeneratedMethod(Operation operation, Class<?>[] args) {
         String controller = getControllerName(operation);
         String methodName = getMethodName(path, httpMethod, operation);
+        if (controller == null || methodName == null) {
+            return null;
+        }
+        OperationBinding binding = ControllerInvokers.findBinding(controller, methodName, args);
+        if (binding == null) {
+            return null;
+        }
+        try {
+            this.controller = binding.getControllerClass().newInstance();
+            this.parameterClasses = args;
+            LOGGER.debug("matched generated binding " + binding.getMethod());
+            return binding.getMethod();
+        } catch (Exception e) {
+            LOGGER.warn("unable to use the generated binding of " + httpMethod + " " + path, e);
+            return null;
+        }
+    }
 
-        if (controller != null && methodName != null) {
+    /**
+     * Reuses a binding from a startup snapshot, looking the controller method up directly instead
+     * of scanning the controller.
+     *
+     * @return false if the snapshot doesn't match the classes on the classpath
+     */
+    private boolean restore(OperationSnapshot snapshot) {
+        if (snapshot.getControllerClass() == null) {
+            if (snapshot.getMockStatus() != null) {
+                this.mockResponse = MockResponse.restore(snapshot.getMockStatus(), snapshot.getMockPayloads());
+            }
+            return true;
+        }
+        Class<?> cls = classIndex.findClass(snapshot.getControllerClass());
+        Class<?>[] args = findClasses(snapshot.getParameterClasses());
+        Class<?>[] methodArgs = findClasses(snapshot.getMethodParameterTypes());
+        if (cls == null || args == null || methodArgs == null) {
+            LOGGER.warn("snapshot of " + httpMethod + " " + path + " doesn't match the classpath");
+            return false;
+        }
+        try {
+            Method method = cls.getMethod(snapshot.getMethodName(), methodArgs);
+            this.controller = cls.newInstance();
+            this.parameterClasses = args;
+            this.method = method;
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("unable to restore " + httpMethod + " " + path + " from snapshot", e);
+            return false;
+        }
+    }
+
+    private Class<?>[] findClasses(List<String> names) {
+        if (names == null) {
+            return null;
+        }
+        Class<?>[] classes = new Class<?>[names.size()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = classIndex.findClass(names.get(i));
+            if (classes[i] == null) {
+                return null;
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return the resolved binding for a startup snapshot.  The mock response of an operation
+     * without a controller is serialized for every media type.
+     */
+    public OperationSnapshot snapshot() {
+        bind();
+        OperationSnapshot snapshot = new OperationSnapshot().path(path).httpMethod(httpMethod);
+        if (method != null) {
+            snapshot.setControllerClass(controller.getClass().getName());
+            snapshot.setMethodName(method.getName());
+            snapshot.setMethodParameterTypes(getNames(method.getParameterTypes()));
+            snapshot.setParameterClasses(getNames(parameterClasses));
+        } else {
+            MockResponse response = getMockResponse();
             try {
-                Class<?> cls;
-                try {
-                    cls = Class.forName(controller);
-                } catch (ClassNotFoundException e) {
-                    controller = controller + "Controller";
-                    cls = Class.forName(controller);
-                }
+                snapshot.setMockPayloads(response.getPayloads());
+                snapshot.setMockStatus(response.getStatus());
+            } catch (IllegalStateException e) {
+                LOGGER.debug("mock response of " + httpMethod + " " + path + " is rebuilt on every boot", e);
+            }
+        }
+        return snapshot;
+    }
 
-                Class<?>[] args = getOperationParameterClasses(operation, this.definitions);
-                Method[] methods = cls.getMethods();
-                for (Method method : methods) {
-                    if (methodName.equals(method.getName())) {
-                        Class<?>[] methodArgs = method.getParameterTypes();
-                        if (methodArgs.length == args.length) {
-                            int i = 0;
-                            boolean matched = true;
-                            if (!args[i].equals(methodArgs[i])) {
-                                LOGGER.debug("failed to match " + args[i] + ", " + methodArgs[i]);
-                                matched = false;
-                            }
-                            if (matched) {
-                                this.parameterClasses = args;
-                                this.controller = cls.newInstance();
-                                LOGGER.debug("matched " + method);
-                                return method;
-                            }
-                        }
-                    }
+    private static List<String> getNames(Class<?>[] classes) {
+        List<String> names = new ArrayList<String>(classes.length);
+        for (Class<?> cls : classes) {
+            names.add(cls.getName());
+        }
+        return names;
+    }
+
+    /**
+     * @return the parameter classes to bind, using the controller's declared type for `file`
+     * parameters which can be received as a stream, file or channel
+     */
+    private Class<?>[] getBindingClasses(Method method) {
+        Class<?>[] classes = parameterClasses.clone();
+        Class<?>[] declared = method.getParameterTypes();
+        for (int i = 1; i < classes.length; i++) {
+            if (InputStream.class.equals(classes[i]) && ParameterBinder.isFileClass(declared[i])) {
+                classes[i] = declared[i];
+            }
+        }
+        return classes;
+    }
+
+    @Override
+    public Response apply(final ContainerRequestContext ctx) {
+        bind();
+        final BindingContext context = createBindingContext(ctx);
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            return enqueue(ctx, context);
+        }
+        if (!async && executor == null) {
+            return process(ctx, context, null);
+        }
+        // the request was suspended by jersey, or is suspended here for lazily bound operations,
+        // and every outcome has to resume it
+        final AsyncContext asyncResponse = asyncContextProvider.get();
+        if (!asyncResponse.isSuspended()) {
+            asyncResponse.suspend();
+        }
+        if (executor != null) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    processAndResume(ctx, context, asyncResponse);
                 }
+            });
+        } else {
+            processAndResume(ctx, context, asyncResponse);
+        }
+        return null;
+    }
 
-                LOGGER.debug("no match in " + controller);
-            } catch (ClassNotFoundException e) {
-                LOGGER.debug("didn't find class " + controller);
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            } catch (InstantiationException e) {
-                e.printStackTrace();
+    /**
+     * Queues a request which found no free permit in the bulkhead.  The request is suspended while
+     * it waits, so it doesn't hold a container thread, and processed on the operation's executor,
+     * or the shared platform executor, once a permit is handed to it.
+     */
+    private Response enqueue(final ContainerRequestContext ctx, final BindingContext context) {
+        final AsyncContext asyncResponse = asyncContextProvider.get();
+        if (!asyncResponse.isSuspended()) {
+            if (bulkhead.isQueueFull()) {
+                return rejected("Too many concurrent requests for " + httpMethod + " " + path);
             }
+            asyncResponse.suspend();
+        }
+        Executor queueExecutor = executor != null ? executor : ControllerExecutors.forMode(ControllerExecutors.PLATFORM);
+        boolean queued = bulkhead.enqueue(queueExecutor, new Runnable() {
+            @Override
+            public void run() {
+                processAndResume(ctx, context, asyncResponse);
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                asyncResponse.resume(rejected("Timed out waiting for a concurrent request slot for " + httpMethod + " " + path));
+            }
+        });
+        if (!queued) {
+            asyncResponse.resume(rejected("Too many concurrent requests for " + httpMethod + " " + path));
         }
         return null;
     }
 
-    @Override
-    public Response apply(ContainerRequestContext ctx) {
-        List<Parameter> parameters = operation.getParameters();
-        Object[] args = new Object[parameters.size() + 1];
-        if (method != null && parameters != null) {
-            int i = 0;
+    private Response rejected(String message) {
+        int statusCode = config.getRejectedRequestStatusCode();
+        return Response.status(statusCode)
+                .entity(new ApiError()
+                        .code(statusCode)
+                        .message(message)).build();
+    }
 
-            args[i] = new RequestContext()
+    /**
+     * Creates the binding context on the request thread, where the request scoped
+     * {@link CloseableService} is available to release uploads after the response is written.
+     */
+    private BindingContext createBindingContext(ContainerRequestContext ctx) {
+        if (bindingPlan == null) {
+            return null;
+        }
+        BindingContext context = bindingPlan.createContext(ctx);
+        if (bindingPlan.hasFormParameters() && closeableServiceProvider != null) {
+            closeableServiceProvider.get().add(context);
+        }
+        return context;
+    }
+
+    private void processAndResume(ContainerRequestContext ctx, BindingContext context, AsyncResponse asyncResponse) {
+        try {
+            Response response = process(ctx, context, asyncResponse);
+            if (response != null) {
+                asyncResponse.resume(response);
+            }
+        } catch (RuntimeException e) {
+            asyncResponse.resume(e);
+        }
+    }
+
+    /**
+     * Dispatches a request which holds the bulkhead's permit, if the operation has a bulkhead.
+     *
+     * @param asyncResponse the suspended request, or null if it is processed synchronously
+     */
+    private Response process(ContainerRequestContext ctx, BindingContext context, AsyncResponse asyncResponse) {
+        if (bulkhead == null) {
+            return dispatch(ctx, context, asyncResponse, null);
+        }
+        boolean pending = false;
+        try {
+            Response response = dispatch(ctx, context, asyncResponse, bulkhead);
+            // a pending CompletionStage gives the permit back when it completes
+            pending = response == null;
+            return response;
+        } finally {
+            if (!pending) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * @return the response, or null if it will be delivered to {@code asyncResponse} once the
+     * controller's {@code CompletionStage} completes
+     */
+    private Response dispatch(ContainerRequestContext ctx, BindingContext context, final AsyncResponse asyncResponse, final Bulkhead bulkhead) {
+        if (method != null && bindingPlan != null) {
+            Object[] args = new Object[bindingPlan.size() + 1];
+            args[0] = new RequestContext()
                     .headers(ctx.getHeaders())
                     .mediaType(ctx.getMediaType())
                     .acceptableMediaTypes(ctx.getAcceptableMediaTypes());
-            i += 1;
-            List<Parameter> missingParams = new ArrayList<Parameter>();
-            UriInfo uri = ctx.getUriInfo();
-            String formDataString = null;
-      /*
-      // TODO handling for multipart
-      if(ctx.getMediaType().isCompatible(MediaType.MULTIPART_FORM_DATA_TYPE)) {
-        MultiPart mp = new MultiPart();
-        mp.bodyPart(ctx.getEntityStream(), MediaType.MULTIPART_FORM_DATA_TYPE);
-
-        for(BodyPart bp : mp.getBodyParts()) {
-          StreamDataBodyPart sd = new StreamDataBodyPart();
-          sd.setStreamEntity(ctx.getEntityStream(), MediaType.TEXT_PLAIN_TYPE);
-        }
-        System.out.println("bp: " + mp.getBodyParts());
-      }
-      */
-            for (Parameter parameter : parameters) {
-                String in = parameter.getIn();
-                Object o = null;
-
-                try {
-                    if ("query".equals(in)) {
-                        o = coerceValue(uri.getQueryParameters().get(parameter.getName()), parameter, parameterClasses[i]);
-                    } else if ("path".equals(in)) {
-                        o = coerceValue(uri.getPathParameters().get(parameter.getName()), parameter, parameterClasses[i]);
-                    } else if ("header".equals(in)) {
-                        o = coerceValue(ctx.getHeaders().get(parameter.getName()), parameter, parameterClasses[i]);
-                    } else if ("formData".equals(in)) {
-                        SerializableParameter sp = (SerializableParameter) parameter;
-                        if ("file".equals(sp.getType())) {
-                            o = ctx.getEntityStream();
-                        } else {
-                            if (formDataString == null) {
-                                // can only read stream once
-                                formDataString = IOUtils.toString(ctx.getEntityStream(), "UTF-8");
-                            }
-                            if (formDataString != null) {
-                                String[] parts = formDataString.split("&");
-                                for (String part : parts) {
-                                    String[] kv = part.split("=");
-                                    if (kv != null && kv.length == 2) {
-                                        // TODO how to handle arrays here?
-                                        String key = kv[0];
-                                        String value = kv[1];
-                                        if (parameter.getName().equals(key)) {
-                                            o = coerceValue(Arrays.asList(value), parameter, parameterClasses[i + 1]);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    } else if ("body".equals(in)) {
-                        if (ctx.hasEntity()) {
-                            o = EntityProcessorFactory.readValue(ctx.getMediaType(), ctx.getEntityStream(), parameterClasses[i]);
-                        }
-                    }
-                } catch (NumberFormatException e) {
-                    LOGGER.error("Couldn't find " + parameter.getName() + " (" + in + ") to " + parameterClasses[i], e);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-                if (o == null && parameter.getRequired()) {
-                    missingParams.add(parameter);
-                }
-
-                args[i] = o;
-                i += 1;
+            List<Parameter> missingParams;
+            try {
+                missingParams = bindingPlan.bind(context, args);
+            } catch (NotSupportedException e) {
+                int statusCode = e.getResponse().getStatus();
+                return Response.status(statusCode)
+                        .entity(new ApiError()
+                                .code(statusCode)
+                                .message(e.getMessage())).build();
             }
 
-            if (missingParams.size() > 0) {
+            if (missingParams != null) {
                 StringBuilder builder = new StringBuilder();
                 builder.append("Missing required Parameter");
                 if (missingParams.size() > 1) {
@@ -242,102 +489,172 @@ public class SwaggerOperationController extends ReflectionUtils implements Infle
             }
             LOGGER.info("calling method " + method + " on controller " + this.controller + " with args " + args);
             try {
-                Object response = method.invoke(controller, args);
-                if (response instanceof ResponseContext) {
-                    ResponseContext wrapper = (ResponseContext) response;
-                    ResponseBuilder builder = Response.status(wrapper.getStatus());
-
-                    // response headers
-                    for (String key : wrapper.getHeaders().keySet()) {
-                        builder.header(key, wrapper.getHeaders().get(key));
-                    }
-
-                    // content type
-                    if (wrapper.getContentType() != null) {
-                        builder.type(wrapper.getContentType());
-                    }
+                Object response = invoker.invoke(args);
+                if (async && response != null) {
+                    CompletionStages.whenComplete(response, new CompletionStages.Callback() {
+                        @Override
+                        public void onSuccess(Object value) {
+                            if (bulkhead != null) {
+                                bulkhead.release();
+                            }
+                            asyncResponse.resume(toResponse(value, asyncResponse));
+                        }
 
-                    if (wrapper.getEntity() != null) {
-                        builder.entity(wrapper.getEntity());
-                    }
-                    return builder.build();
+                        @Override
+                        public void onFailure(Throwable throwable) {
+                            if (bulkhead != null) {
+                                bulkhead.release();
+                            }
+                            LOGGER.error("asynchronous method " + method + " failed", throwable);
+                            asyncResponse.resume(throwable);
+                        }
+                    });
+                    return null;
                 }
-                return Response.ok().entity(response).build();
-            } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
+                return toResponse(response, asyncResponse);
+            } catch (Exception e) {
                 LOGGER.error("failed to invoke method " + method, e);
             }
         }
-        Map<String, io.swagger.models.Response> responses = operation.getResponses();
-        if (responses != null) {
-            String[] keys = new String[responses.keySet().size()];
-            Arrays.sort(responses.keySet().toArray(keys));
-            int code = 0;
-            String defaultKey = null;
-            for (String key : keys) {
-                if (key.startsWith("2")) {
-                    defaultKey = key;
-                    code = Integer.parseInt(key);
-                    break;
-                }
-                if ("default".equals(key)) {
-                    defaultKey = key;
-                    code = 200;
-                }
+        return getMockResponse().toResponse(ctx.getAcceptableMediaTypes(), ExampleSerializer.isPrettyPrint(ctx.getUriInfo()));
+    }
+
+    private MockResponse getMockResponse() {
+        MockResponse response = mockResponse;
+        if (response == null) {
+            // built at most a few times if the first requests race, any of them can be kept
+            response = MockResponse.create(operation, definitions);
+            mockResponse = response;
+        }
+        return response;
+    }
+
+    private Response toResponse(Object response, AsyncResponse asyncResponse) {
+        if (response instanceof ResponseContext) {
+            ResponseContext wrapper = (ResponseContext) response;
+            ResponseBuilder builder = Response.status(wrapper.getStatus());
+
+            // response headers
+            for (String key : wrapper.getHeaders().keySet()) {
+                builder.header(key, wrapper.getHeaders().get(key));
+            }
+
+            // content type
+            if (wrapper.getContentType() != null) {
+                builder.type(wrapper.getContentType());
             }
 
-            io.swagger.models.Response response = responses.get(defaultKey);
-            Object output = ExampleBuilder.fromProperty(response.getSchema(), definitions);
-            if (output != null) {
-                return Response.status(code).entity(output).build();
+            if (wrapper.getEntity() != null) {
+                builder.entity(stream(wrapper.getEntity(), asyncResponse));
             }
-            return Response.status(code).build();
+            return builder.build();
         }
+        return Response.ok().entity(stream(response, asyncResponse)).build();
+    }
 
-        // TODO: might need to check possible response types
-        return Response.ok().build();
+    /**
+     * Wraps a streamed result and closes its source once the request completes, which the
+     * serializer would otherwise only do if it gets to write the entity.
+     */
+    private Object stream(Object value, AsyncResponse asyncResponse) {
+        Object entity = StreamingEntity.wrap(value);
+        if (entity instanceof StreamingEntity && ((StreamingEntity) entity).hasSource()) {
+            final StreamingEntity streamingEntity = (StreamingEntity) entity;
+            AsyncResponse target = asyncResponse;
+            if (target == null && asyncContextProvider != null) {
+                target = asyncContextProvider.get();
+            }
+            if (target != null) {
+                target.register(new CompletionCallback() {
+                    @Override
+                    public void onComplete(Throwable throwable) {
+                        try {
+                            streamingEntity.close();
+                        } catch (Exception e) {
+                            LOGGER.warn("failed to close streamed entity", e);
+                        }
+                    }
+                });
+            }
+        }
+        return entity;
     }
 
-    public Object coerceValue(List<String> o, Parameter parameter, Class<?> cls) {
-        if (o == null || o.size() == 0) {
+    private Bulkhead createBulkhead(Operation operation) {
+        Integer maxConcurrency = getIntegerExtension(operation, "x-inflector-max-concurrency");
+        if (maxConcurrency == null) {
             return null;
         }
+        Integer maxQueue = getIntegerExtension(operation, "x-inflector-max-queue");
+        LOGGER.debug("limiting " + httpMethod + " " + path + " to " + maxConcurrency + " concurrent requests");
+        return new Bulkhead(maxConcurrency, maxQueue == null ? 0 : maxQueue, config.getBulkheadQueueTimeout());
+    }
 
-        LOGGER.debug("casting `" + o + "` to " + cls);
-        if (List.class.equals(cls)) {
-            if (parameter instanceof SerializableParameter) {
-                List<Object> output = new ArrayList<Object>();
-                SerializableParameter sp = (SerializableParameter) parameter;
-                if (sp.getItems() != null) {
-                    Property inner = sp.getItems();
-
-                    // TODO: this does not need to be done this way, update the helper method
-                    Parameter innerParam = new QueryParameter().property(inner);
-                    Class<?> innerClass = getParameterSignature(innerParam, definitions);
-                    for (String obj : o) {
-                        String[] parts = new String[0];
-                        if ("csv".equals(sp.getCollectionFormat()) && !StringUtils.isEmpty(obj)) {
-                            parts = obj.split(",");
-                        }
-                        if ("pipes".equals(sp.getCollectionFormat()) && !StringUtils.isEmpty(obj)) {
-                            parts = obj.split("|");
-                        }
-                        if ("ssv".equals(sp.getCollectionFormat()) && !StringUtils.isEmpty(obj)) {
-                            parts = obj.split(" ");
-                        }
-                        for (String p : parts) {
-                            Object ob = cast(p, inner, innerClass);
-                            if (ob != null) {
-                                output.add(ob);
-                            }
-                        }
-                    }
-                }
-                return output;
+    private Integer getIntegerExtension(Operation operation, String name) {
+        Object value = operation.getVendorExtensions().get(name);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                LOGGER.error("invalid value `" + value + "` for " + name + " on " + httpMethod + " " + path);
             }
-        } else if (parameter instanceof SerializableParameter) {
-            SerializableParameter sp = (SerializableParameter) parameter;
-            return cast(o.get(0), sp.getItems(), cls);
         }
         return null;
     }
+
+    private String getExecutorMode(Operation operation) {
+        Object extension = operation.getVendorExtensions().get("x-inflector-executor");
+        if (extension != null) {
+            return extension.toString();
+        }
+        return config.getControllerExecutor();
+    }
+
+    /**
+     * @return the controller method bound to the operation, or null if it is mocked
+     */
+    public Method getMethod() {
+        bind();
+        return method;
+    }
+
+    /**
+     * @return the instance the controller method is called on, or null if the operation is mocked
+     */
+    public Object getController() {
+        bind();
+        return controller;
+    }
+
+    /**
+     * @return true if the matched controller method returns a {@code CompletionStage}
+     */
+    public boolean isAsync() {
+        bind();
+        return async;
+    }
+
+    /**
+     * @return true if the resource method has to be registered as suspended, either because the
+     * controller is asynchronous or because it is invoked off the container thread.  Lazily bound
+     * operations are registered as not suspended, since that is only known once they are bound,
+     * and their requests are suspended when they are processed if they need to be.
+     */
+    public boolean isSuspended() {
+        if (lazy) {
+            return false;
+        }
+        return async || executor != null;
+    }
+
+    /**
+     * Coerces raw parameter values the way the operation's {@link BindingPlan} does.  Requests are
+     * bound through the plan; this builds a {@link ValueCoercer} on each call.
+     */
+    public Object coerceValue(List<String> o, Parameter parameter, Class<?> cls) {
+        return ValueCoercer.create(this, parameter, cls, definitions).coerce(o);
+    }
 }
@@ -17,20 +17,145 @@
 package io.swagger.inflector;
 
 import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
 import org.glassfish.jersey.process.Inflector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Serves the swagger definition as JSON or YAML.  The definition is serialized once, when the
+ * controller is created or the definition is replaced, and kept as raw and gzip compressed
+ * bytes with a strong ETag for each, so polling clients get a 304 or the cached bytes.
+ */
 public class SwaggerResourceController implements Inflector<ContainerRequestContext, Response> {
-    private Swagger swagger;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerResourceController.class);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final MediaType mediaType;
+    private volatile Listing listing;
 
+    /**
+     * Serves the definition as JSON.
+     */
     public SwaggerResourceController(Swagger swagger) {
-        this.swagger = swagger;
+        this(swagger, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    public SwaggerResourceController(Swagger swagger, MediaType mediaType) {
+        this.mediaType = mediaType;
+        setSwagger(swagger);
+    }
+
+    /**
+     * Replaces the served definition, serializing it again.
+     */
+    public void setSwagger(Swagger swagger) {
+        try {
+            this.listing = new Listing(serialize(swagger));
+        } catch (IOException e) {
+            LOGGER.error("unable to serialize swagger definition as " + mediaType, e);
+        }
     }
 
     @Override
-    public Response apply(ContainerRequestContext arg0) {
-        return Response.ok().entity(swagger).build();
+    public Response apply(ContainerRequestContext ctx) {
+        Listing current = listing;
+        if (current == null) {
+            return Response.serverError().build();
+        }
+        boolean gzip = acceptsGzip(ctx.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        EntityTag tag = gzip ? current.gzipTag : current.tag;
+
+        ResponseBuilder builder = ctx.getRequest().evaluatePreconditions(tag);
+        if (builder == null) {
+            builder = Response.ok(gzip ? current.gzip : current.raw, mediaType);
+            if (gzip) {
+                builder.header("Content-Encoding", "gzip");
+            }
+        }
+        return builder.tag(tag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    private byte[] serialize(Swagger swagger) throws IOException {
+        if (mediaType.toString().startsWith("application/yaml")) {
+            return Yaml.mapper().writeValueAsString(swagger).getBytes("utf-8");
+        }
+        return Json.mapper().writeValueAsString(swagger).getBytes("utf-8");
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].replace(" ", "");
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String qvalue) {
+        try {
+            return Double.parseDouble(qvalue) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static class Listing {
+        final byte[] raw;
+        final byte[] gzip;
+        final EntityTag tag;
+        final EntityTag gzipTag;
+
+        Listing(byte[] raw) throws IOException {
+            this.raw = raw;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+            GZIPOutputStream gz = new GZIPOutputStream(out);
+            gz.write(raw);
+            gz.close();
+            this.gzip = out.toByteArray();
+            String hash = hash(raw);
+            // each encoding is a different representation and needs its own strong tag
+            this.tag = new EntityTag(hash);
+            this.gzipTag = new EntityTag(hash + "-gzip");
+        }
+
+        private static String hash(byte[] bytes) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+                char[] chars = new char[digest.length * 2];
+                for (int i = 0; i < digest.length; i++) {
+                    chars[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                    chars[i * 2 + 1] = HEX[digest[i] & 0xf];
+                }
+                return new String(chars);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
     }
 }
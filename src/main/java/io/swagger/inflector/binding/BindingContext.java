@@ -0,0 +1,193 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.binding;
+
+import org.jvnet.mimepull.MIMEPart;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-request state shared by the binders of a {@link BindingPlan}.  Query and path parameters
+ * are looked up from the request once, and the entity stream, which can only be read once, is
+ * parsed here for all formData and file parameters.  Closing the context releases the parsed
+ * multipart body, temp files and channels handed to the controller.
+ */
+public class BindingContext implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BindingContext.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ContainerRequestContext request;
+    private final FormParser formParser;
+    private final MultipartParser multipartParser;
+    private MultivaluedMap<String, String> queryParameters;
+    private MultivaluedMap<String, String> pathParameters;
+    private List<String>[] formValues;
+    private MultipartBody multipartBody;
+    private List<Closeable> closeables;
+    private List<File> tempFiles;
+
+    public BindingContext(ContainerRequestContext request, FormParser formParser, MultipartParser multipartParser) {
+        this.request = request;
+        this.formParser = formParser;
+        this.multipartParser = multipartParser;
+    }
+
+    public ContainerRequestContext getRequest() {
+        return request;
+    }
+
+    public MultivaluedMap<String, String> getQueryParameters() {
+        if (queryParameters == null) {
+            queryParameters = request.getUriInfo().getQueryParameters();
+        }
+        return queryParameters;
+    }
+
+    public MultivaluedMap<String, String> getPathParameters() {
+        if (pathParameters == null) {
+            pathParameters = request.getUriInfo().getPathParameters();
+        }
+        return pathParameters;
+    }
+
+    public MultivaluedMap<String, String> getHeaders() {
+        return request.getHeaders();
+    }
+
+    /**
+     * @param field the position of the field in the plan's {@link FormParser}
+     * @return the decoded values of the formData field, or null if it wasn't sent
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getFormValues(int field) throws IOException {
+        if (formValues == null) {
+            Charset charset = getCharset(request.getMediaType());
+            if (isMultipart()) {
+                MultipartBody body = getMultipartBody();
+                formValues = new List[formParser.size()];
+                for (int i = 0; i < formValues.length; i++) {
+                    formValues[i] = body.getValues(formParser.getName(i), charset);
+                }
+            } else {
+                // can only read stream once
+                formValues = formParser.parse(request.getEntityStream(), charset);
+            }
+        }
+        return formValues[field];
+    }
+
+    public boolean isMultipart() {
+        MediaType mediaType = request.getMediaType();
+        return mediaType != null && mediaType.isCompatible(MediaType.MULTIPART_FORM_DATA_TYPE);
+    }
+
+    /**
+     * @return the parsed body of a {@code multipart/form-data} request
+     */
+    public MultipartBody getMultipartBody() throws IOException {
+        if (multipartBody == null) {
+            multipartBody = multipartParser.parse(request.getEntityStream(), request.getMediaType());
+        }
+        return multipartBody;
+    }
+
+    /**
+     * @return the first part sent for the field, or null if there is none
+     */
+    public MIMEPart getPart(String name) throws IOException {
+        return getMultipartBody().getPart(name);
+    }
+
+    /**
+     * @return a new temp file which is deleted when the context is closed
+     */
+    public File createTempFile() throws IOException {
+        File file = multipartParser.createTempFile();
+        if (tempFiles == null) {
+            tempFiles = new ArrayList<File>();
+        }
+        tempFiles.add(file);
+        return file;
+    }
+
+    /**
+     * Registers a resource opened for the controller to be closed with the context.
+     */
+    public <T extends Closeable> T register(T closeable) {
+        if (closeables == null) {
+            closeables = new ArrayList<Closeable>();
+        }
+        closeables.add(closeable);
+        return closeable;
+    }
+
+    @Override
+    public void close() {
+        if (closeables != null) {
+            for (Closeable closeable : closeables) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    LOGGER.debug("failed to close " + closeable, e);
+                }
+            }
+        }
+        if (multipartBody != null) {
+            multipartBody.close();
+        }
+        if (tempFiles != null) {
+            for (File file : tempFiles) {
+                if (file.exists() && !file.delete()) {
+                    LOGGER.warn("unable to delete temp file " + file);
+                }
+            }
+        }
+    }
+
+    private static Charset getCharset(MediaType mediaType) {
+        if (mediaType != null) {
+            String charset = mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+            if (charset != null) {
+                return forName(charset);
+            }
+        }
+        return UTF_8;
+    }
+
+    /**
+     * @throws NotSupportedException if the request names a charset the JVM doesn't support
+     */
+    static Charset forName(String charset) {
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            // IllegalCharsetNameException or UnsupportedCharsetException
+            throw new NotSupportedException("Unsupported charset " + charset);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.binding;
+
+import io.swagger.inflector.utils.ReflectionUtils;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.SerializableParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precompiled list of binders for the parameters of an operation.  The plan is built
+ * once when the operation is registered and then run against every request.
+ */
+public class BindingPlan {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BindingPlan.class);
+
+    public static final String FAIL_ON_UNKNOWN_PROPERTIES = "x-inflector-fail-on-unknown-properties";
+
+    private final ParameterBinder[] binders;
+    private final FormParser formParser;
+    private final MultipartParser multipartParser;
+    private final boolean formParameters;
+
+    public BindingPlan(ParameterBinder[] binders, FormParser formParser, MultipartParser multipartParser) {
+        this.binders = binders;
+        this.formParser = formParser;
+        this.multipartParser = multipartParser;
+        boolean form = false;
+        for (ParameterBinder binder : binders) {
+            form |= "formData".equals(binder.parameter.getIn());
+        }
+        this.formParameters = form;
+    }
+
+    /**
+     * Builds the plan for an operation.  The first entry of {@code parameterClasses} is the
+     * {@link io.swagger.inflector.models.RequestContext} and is not bound here.  Body readers
+     * honor the operation's `x-inflector-fail-on-unknown-properties` extension.
+     */
+    public static BindingPlan create(ReflectionUtils utils, Operation operation, Class<?>[] parameterClasses, Map<String, Model> definitions,
+                                     MultipartParser multipartParser) {
+        List<Parameter> parameters = operation.getParameters();
+        FormParser formParser = createFormParser(parameters);
+        Boolean failOnUnknownProperties = getBooleanExtension(operation, FAIL_ON_UNKNOWN_PROPERTIES);
+        ParameterBinder[] binders = new ParameterBinder[parameters.size()];
+        for (int i = 0; i < binders.length; i++) {
+            Parameter parameter = parameters.get(i);
+            Class<?> cls = parameterClasses[i + 1];
+            binders[i] = ParameterBinder.create(parameter, cls, ValueCoercer.create(utils, parameter, cls, definitions), formParser,
+                    failOnUnknownProperties);
+        }
+        return new BindingPlan(binders, formParser, multipartParser);
+    }
+
+    private static Boolean getBooleanExtension(Operation operation, String name) {
+        Object value = operation.getVendorExtensions().get(name);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value != null) {
+            return Boolean.parseBoolean(value.toString());
+        }
+        return null;
+    }
+
+    /**
+     * @return a parser which keeps only the operation's non-file formData fields
+     */
+    public static FormParser createFormParser(List<Parameter> parameters) {
+        List<String> names = new ArrayList<String>();
+        for (Parameter parameter : parameters) {
+            if ("formData".equals(parameter.getIn())
+                    && !"file".equals(((SerializableParameter) parameter).getType())) {
+                names.add(parameter.getName());
+            }
+        }
+        return new FormParser(names.toArray(new String[names.size()]));
+    }
+
+    public BindingContext createContext(ContainerRequestContext request) {
+        return new BindingContext(request, formParser, multipartParser);
+    }
+
+    /**
+     * @return true if the operation has formData or file parameters, whose contexts hold
+     * resources that have to be closed once the response is written
+     */
+    public boolean hasFormParameters() {
+        return formParameters;
+    }
+
+    public int size() {
+        return binders.length;
+    }
+
+    public ParameterBinder[] getBinders() {
+        return binders.clone();
+    }
+
+    /**
+     * Binds every parameter into {@code args}, starting at index 1.
+     *
+     * @return the required parameters which could not be bound, or null if there are none
+     */
+    public List<Parameter> bind(BindingContext context, Object[] args) {
+        List<Parameter> missingParams = null;
+        for (int i = 0; i < binders.length; i++) {
+            ParameterBinder binder = binders[i];
+            Object o = null;
+            try {
+                o = binder.bind(context);
+            } catch (NumberFormatException e) {
+                LOGGER.error("Couldn't find " + binder.name + " (" + binder.parameter.getIn() + ") to " + binder.parameterClass, e);
+            } catch (IOException e) {
+                LOGGER.error("unable to read " + binder.name + " (" + binder.parameter.getIn() + ")", e);
+            }
+            if (o == null && binder.required) {
+                if (missingParams == null) {
+                    missingParams = new ArrayList<Parameter>();
+                }
+                missingParams.add(binder.parameter);
+            }
+            args[i + 1] = o;
+        }
+        return missingParams;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.binding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass parser for {@code application/x-www-form-urlencoded} bodies.  The body is decoded
+ * straight from the entity stream, and only the values of the declared field names are kept,
+ * indexed by their position in the names passed to the constructor.  Repeated fields keep every
+ * value in order.
+ */
+public class FormParser {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, Integer> index = new HashMap<String, Integer>();
+    private final String[] names;
+    private final int size;
+
+    public FormParser(String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+        this.names = names.clone();
+        this.size = names.length;
+    }
+
+    /**
+     * @return the position of the field in the parsed values, or -1 if it isn't declared
+     */
+    public int indexOf(String name) {
+        Integer i = index.get(name);
+        return i == null ? -1 : i;
+    }
+
+    public String getName(int field) {
+        return names[field];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the values for each declared field, null for fields not present in the body
+     */
+    @SuppressWarnings("unchecked")
+    public List<String>[] parse(InputStream in, Charset charset) throws IOException {
+        List<String>[] values = new List[size];
+        Token token = new Token();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int field = -1;
+        boolean inValue = false;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '&') {
+                    endField(values, token, charset, inValue, field);
+                    token.reset();
+                    field = -1;
+                    inValue = false;
+                } else if (b == '=' && !inValue) {
+                    field = indexOf(token.toString(charset));
+                    inValue = true;
+                    token.reset();
+                } else if (!inValue || field != -1) {
+                    // values of undeclared fields are skipped without being decoded
+                    token.append(b);
+                }
+            }
+        }
+        endField(values, token, charset, inValue, field);
+        return values;
+    }
+
+    private void endField(List<String>[] values, Token token, Charset charset, boolean inValue, int field) {
+        String value;
+        if (inValue) {
+            value = token.toString(charset);
+        } else if (!token.isEmpty()) {
+            // a field without `=` has an empty value
+            field = indexOf(token.toString(charset));
+            value = "";
+        } else {
+            return;
+        }
+        if (field == -1) {
+            return;
+        }
+        if (values[field] == null) {
+            values[field] = new ArrayList<String>(1);
+        }
+        values[field].add(value);
+    }
+
+    /**
+     * Accumulates the percent-decoded bytes of the current key or value.
+     */
+    static class Token {
+        private byte[] bytes = new byte[64];
+        private int length;
+        private int hexDigits = -1;
+        private byte firstDigit;
+
+        void append(byte b) {
+            if (hexDigits == -1) {
+                if (b == '%') {
+                    hexDigits = 0;
+                } else if (b == '+') {
+                    put((byte) ' ');
+                } else {
+                    put(b);
+                }
+            } else if (Character.digit((char) b, 16) == -1) {
+                // not an escape after all, keep it as written
+                flushEscape();
+                append(b);
+            } else if (hexDigits == 0) {
+                firstDigit = b;
+                hexDigits = 1;
+            } else {
+                put((byte) ((Character.digit((char) firstDigit, 16) << 4) + Character.digit((char) b, 16)));
+                hexDigits = -1;
+            }
+        }
+
+        boolean isEmpty() {
+            return length == 0 && hexDigits == -1;
+        }
+
+        String toString(Charset charset) {
+            flushEscape();
+            return new String(bytes, 0, length, charset);
+        }
+
+        void reset() {
+            length = 0;
+            hexDigits = -1;
+        }
+
+        private void flushEscape() {
+            if (hexDigits >= 0) {
+                put((byte) '%');
+                if (hexDigits == 1) {
+                    put(firstDigit);
+                }
+                hexDigits = -1;
+            }
+        }
+
+        private void put(byte b) {
+            if (length == bytes.length) {
+                byte[] grown = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+            bytes[length++] = b;
+        }
+    }
+}
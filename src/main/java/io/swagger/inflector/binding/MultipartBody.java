@@ -0,0 +1,135 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.binding;
+
+import org.apache.commons.io.IOUtils;
+import org.jvnet.mimepull.MIMEPart;
+
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.core.MediaType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a parsed {@code multipart/form-data} body, indexed by their form field name.
+ * Closing the body releases the memory and temp files held by the parts.
+ */
+public class MultipartBody implements Closeable {
+    private final List<MIMEPart> parts;
+    private final Map<String, List<MIMEPart>> fields = new HashMap<String, List<MIMEPart>>();
+
+    public MultipartBody(List<MIMEPart> parts) {
+        this.parts = parts;
+        for (MIMEPart part : parts) {
+            String name = getFieldName(part);
+            if (name != null) {
+                List<MIMEPart> list = fields.get(name);
+                if (list == null) {
+                    list = new ArrayList<MIMEPart>();
+                    fields.put(name, list);
+                }
+                list.add(part);
+            }
+        }
+    }
+
+    /**
+     * @return the first part sent for the field, or null if there is none
+     */
+    public MIMEPart getPart(String name) {
+        List<MIMEPart> list = fields.get(name);
+        return list == null ? null : list.get(0);
+    }
+
+    /**
+     * Reads the text values of a field.  Parts without a charset in their content type are
+     * decoded with {@code defaultCharset}.
+     *
+     * @return the values in the order they were sent, or null if the field wasn't sent
+     */
+    public List<String> getValues(String name, Charset defaultCharset) throws IOException {
+        List<MIMEPart> list = fields.get(name);
+        if (list == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<String>(list.size());
+        for (MIMEPart part : list) {
+            InputStream in = part.read();
+            try {
+                values.add(IOUtils.toString(in, getCharset(part, defaultCharset)));
+            } finally {
+                in.close();
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void close() {
+        for (MIMEPart part : parts) {
+            part.close();
+        }
+    }
+
+    /**
+     * @throws NotSupportedException if the part's content type can't be parsed or names a charset
+     *                               the JVM doesn't support
+     */
+    private static Charset getCharset(MIMEPart part, Charset defaultCharset) {
+        String contentType = part.getContentType();
+        if (contentType != null) {
+            MediaType mediaType;
+            try {
+                mediaType = MediaType.valueOf(contentType);
+            } catch (IllegalArgumentException e) {
+                throw new NotSupportedException("Invalid part content type " + contentType);
+            }
+            String charset = mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+            if (charset != null) {
+                return BindingContext.forName(charset);
+            }
+        }
+        return defaultCharset;
+    }
+
+    /**
+     * @return the `name` parameter of the part's {@code Content-Disposition} header
+     */
+    static String getFieldName(MIMEPart part) {
+        List<String> headers = part.getHeader("Content-Disposition");
+        if (headers == null || headers.isEmpty()) {
+            return null;
+        }
+        for (String parameter : headers.get(0).split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && "name".equalsIgnoreCase(pair[0].trim())) {
+                String value = pair[1].trim();
+                if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.binding;
+
+import org.jvnet.mimepull.MIMEConfig;
+import org.jvnet.mimepull.MIMEMessage;
+import org.jvnet.mimepull.MIMEParsingException;
+import org.jvnet.mimepull.MIMEPart;
+
+import javax.ws.rs.core.MediaType;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Streaming parser for {@code multipart/form-data} bodies.  Parts are read straight from the
+ * entity stream; each part is buffered in memory up to {@code memoryThreshold} bytes and
+ * spilled to a temp file beyond that, so the heap used by an upload is bounded regardless of
+ * its size.
+ */
+public class MultipartParser {
+    public static final long DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private final long memoryThreshold;
+    private final File tempDir;
+
+    /**
+     * @param memoryThreshold bytes of a part kept in memory before it is written to disk, -1 to
+     *                        never use the disk
+     * @param tempDir         directory for spilled parts, null for {@code java.io.tmpdir}
+     */
+    public MultipartParser(long memoryThreshold, String tempDir) {
+        this.memoryThreshold = memoryThreshold;
+        this.tempDir = tempDir == null ? null : new File(tempDir);
+    }
+
+    public MultipartBody parse(InputStream in, MediaType mediaType) throws IOException {
+        String boundary = mediaType.getParameters().get("boundary");
+        if (boundary == null) {
+            throw new IOException("missing boundary in " + mediaType);
+        }
+        MIMEConfig config = new MIMEConfig();
+        config.setMemoryThreshold(memoryThreshold);
+        if (tempDir != null) {
+            config.setDir(tempDir.getAbsolutePath());
+        }
+        try {
+            List<MIMEPart> parts = new MIMEMessage(in, boundary, config).getAttachments();
+            return new MultipartBody(parts);
+        } catch (MIMEParsingException e) {
+            throw new IOException("unable to parse multipart body", e);
+        }
+    }
+
+    /**
+     * Creates a temp file for a file parameter in the configured directory.  The caller is
+     * responsible for deleting it.
+     */
+    public File createTempFile() throws IOException {
+        return File.createTempFile("inflector", ".upload", tempDir);
+    }
+
+    public long getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    public File getTempDir() {
+        return tempDir;
+    }
+}
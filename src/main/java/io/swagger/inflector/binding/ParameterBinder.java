@@ -0,0 +1,255 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.binding;
+
+import io.swagger.inflector.processors.EntityProcessor;
+import io.swagger.inflector.processors.EntityProcessorFactory;
+import io.swagger.inflector.processors.JacksonProcessor;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.SerializableParameter;
+
+import org.jvnet.mimepull.MIMEPart;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Extracts a single operation parameter from the request.  One binder is created per parameter
+ * when the operation is registered, with the parameter location and target class already resolved.
+ */
+public abstract class ParameterBinder {
+    protected final Parameter parameter;
+    protected final String name;
+    protected final Class<?> parameterClass;
+    protected final boolean required;
+
+    protected ParameterBinder(Parameter parameter, Class<?> parameterClass) {
+        this.parameter = parameter;
+        this.name = parameter.getName();
+        this.parameterClass = parameterClass;
+        this.required = parameter.getRequired();
+    }
+
+    public abstract Object bind(BindingContext context) throws IOException;
+
+    public Parameter getParameter() {
+        return parameter;
+    }
+
+    public Class<?> getParameterClass() {
+        return parameterClass;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * @param formParser parser for the operation's formData fields, from {@link BindingPlan#createFormParser}
+     * @param failOnUnknownProperties whether a body with unknown properties is rejected, or null
+     *                                for the mappers' defaults
+     */
+    public static ParameterBinder create(Parameter parameter, Class<?> parameterClass, ValueCoercer coercer, FormParser formParser,
+                                         Boolean failOnUnknownProperties) {
+        String in = parameter.getIn();
+        if ("query".equals(in)) {
+            return new QueryBinder(parameter, parameterClass, coercer);
+        } else if ("path".equals(in)) {
+            return new PathBinder(parameter, parameterClass, coercer);
+        } else if ("header".equals(in)) {
+            return new HeaderBinder(parameter, parameterClass, coercer);
+        } else if ("formData".equals(in)) {
+            SerializableParameter sp = (SerializableParameter) parameter;
+            if ("file".equals(sp.getType())) {
+                return new FileBinder(parameter, parameterClass);
+            }
+            return new FormDataBinder(parameter, parameterClass, coercer, formParser.indexOf(parameter.getName()));
+        } else if ("body".equals(in)) {
+            return new BodyBinder(parameter, parameterClass, JacksonProcessor.readers(parameterClass, failOnUnknownProperties));
+        }
+        return new UnsupportedBinder(parameter, parameterClass);
+    }
+
+    static class QueryBinder extends ParameterBinder {
+        private final ValueCoercer coercer;
+
+        QueryBinder(Parameter parameter, Class<?> parameterClass, ValueCoercer coercer) {
+            super(parameter, parameterClass);
+            this.coercer = coercer;
+        }
+
+        @Override
+        public Object bind(BindingContext context) {
+            return coercer.coerce(context.getQueryParameters().get(name));
+        }
+    }
+
+    static class PathBinder extends ParameterBinder {
+        private final ValueCoercer coercer;
+
+        PathBinder(Parameter parameter, Class<?> parameterClass, ValueCoercer coercer) {
+            super(parameter, parameterClass);
+            this.coercer = coercer;
+        }
+
+        @Override
+        public Object bind(BindingContext context) {
+            return coercer.coerce(context.getPathParameters().get(name));
+        }
+    }
+
+    static class HeaderBinder extends ParameterBinder {
+        private final ValueCoercer coercer;
+
+        HeaderBinder(Parameter parameter, Class<?> parameterClass, ValueCoercer coercer) {
+            super(parameter, parameterClass);
+            this.coercer = coercer;
+        }
+
+        @Override
+        public Object bind(BindingContext context) {
+            return coercer.coerce(context.getHeaders().get(name));
+        }
+    }
+
+    static class FormDataBinder extends ParameterBinder {
+        private final ValueCoercer coercer;
+        private final int field;
+
+        FormDataBinder(Parameter parameter, Class<?> parameterClass, ValueCoercer coercer, int field) {
+            super(parameter, parameterClass);
+            this.coercer = coercer;
+            this.field = field;
+        }
+
+        @Override
+        public Object bind(BindingContext context) throws IOException {
+            return coercer.coerce(context.getFormValues(field));
+        }
+    }
+
+    /**
+     * @return true if a `file` parameter can be bound to the class
+     */
+    public static boolean isFileClass(Class<?> cls) {
+        return InputStream.class.equals(cls)
+                || Path.class.equals(cls)
+                || File.class.equals(cls)
+                || ReadableByteChannel.class.equals(cls)
+                || FileChannel.class.equals(cls);
+    }
+
+    /**
+     * Binds a `file` parameter from a part of a multipart body, or from the whole entity for
+     * other content types.  Streams are read straight from the buffered or spilled part, while
+     * files and channels take over the part's temp file instead of copying it where possible.
+     */
+    static class FileBinder extends ParameterBinder {
+        FileBinder(Parameter parameter, Class<?> parameterClass) {
+            super(parameter, parameterClass);
+        }
+
+        @Override
+        public Object bind(BindingContext context) throws IOException {
+            if (!context.isMultipart()) {
+                InputStream in = context.getRequest().getEntityStream();
+                if (InputStream.class.equals(parameterClass)) {
+                    return in;
+                }
+                if (ReadableByteChannel.class.equals(parameterClass)) {
+                    return context.register(Channels.newChannel(in));
+                }
+                File file = context.createTempFile();
+                Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                return convert(context, file);
+            }
+            MIMEPart part = context.getPart(name);
+            if (part == null) {
+                return null;
+            }
+            if (InputStream.class.equals(parameterClass)) {
+                return part.readOnce();
+            }
+            File file = context.createTempFile();
+            // renames the spilled file when the part is on disk
+            file.delete();
+            part.moveTo(file);
+            return convert(context, file);
+        }
+
+        private Object convert(BindingContext context, File file) throws IOException {
+            if (File.class.equals(parameterClass)) {
+                return file;
+            }
+            if (Path.class.equals(parameterClass)) {
+                return file.toPath();
+            }
+            return context.register(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        }
+    }
+
+    /**
+     * Reads the body with the processor registered for its content type.  When that is the
+     * built-in {@link JacksonProcessor}, the readers created for the parameter class are used.
+     */
+    static class BodyBinder extends ParameterBinder {
+        private final JacksonProcessor.Readers readers;
+
+        BodyBinder(Parameter parameter, Class<?> parameterClass, JacksonProcessor.Readers readers) {
+            super(parameter, parameterClass);
+            this.readers = readers;
+        }
+
+        @Override
+        public Object bind(BindingContext context) {
+            ContainerRequestContext request = context.getRequest();
+            if (!request.hasEntity()) {
+                return null;
+            }
+            MediaType mediaType = request.getMediaType();
+            EntityProcessor processor = EntityProcessorFactory.getProcessor(mediaType);
+            if (processor instanceof JacksonProcessor) {
+                return ((JacksonProcessor) processor).process(mediaType, request.getEntityStream(), readers);
+            }
+            if (processor != null) {
+                return processor.process(mediaType, request.getEntityStream(), parameterClass);
+            }
+            return null;
+        }
+    }
+
+    static class UnsupportedBinder extends ParameterBinder {
+        UnsupportedBinder(Parameter parameter, Class<?> parameterClass) {
+            super(parameter, parameterClass);
+        }
+
+        @Override
+        public Object bind(BindingContext context) {
+            return null;
+        }
+    }
+}
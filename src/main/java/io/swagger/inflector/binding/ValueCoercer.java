@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.binding;
+
+import io.swagger.inflector.utils.ReflectionUtils;
+import io.swagger.models.Model;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.parameters.SerializableParameter;
+import io.swagger.models.properties.Property;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Converts raw string values from the request into the class expected by the controller.  The
+ * target class, item property and collection delimiter are all resolved when the coercer is
+ * created so nothing is looked up per request.
+ */
+public abstract class ValueCoercer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ValueCoercer.class);
+
+    private static final Pattern CSV = Pattern.compile(",");
+    private static final Pattern PIPES = Pattern.compile("\\|");
+    private static final Pattern SSV = Pattern.compile(" ");
+    private static final Pattern TSV = Pattern.compile("\t");
+
+    public abstract Object coerce(List<String> values);
+
+    public static ValueCoercer create(ReflectionUtils utils, Parameter parameter, Class<?> cls, Map<String, Model> definitions) {
+        if (!(parameter instanceof SerializableParameter)) {
+            return new NullCoercer();
+        }
+        SerializableParameter sp = (SerializableParameter) parameter;
+        if (List.class.equals(cls)) {
+            Property inner = sp.getItems();
+            if (inner == null) {
+                return new ListCoercer(utils, null, null, null, false);
+            }
+            // TODO: this does not need to be done this way, update the helper method
+            Parameter innerParam = new QueryParameter().property(inner);
+            Class<?> innerClass = utils.getParameterSignature(innerParam, definitions);
+            String collectionFormat = sp.getCollectionFormat();
+            return new ListCoercer(utils, inner, innerClass, delimiter(collectionFormat), "multi".equals(collectionFormat));
+        }
+        return new ScalarCoercer(utils, sp.getItems(), cls);
+    }
+
+    static Pattern delimiter(String collectionFormat) {
+        if ("csv".equals(collectionFormat)) {
+            return CSV;
+        }
+        if ("pipes".equals(collectionFormat)) {
+            return PIPES;
+        }
+        if ("ssv".equals(collectionFormat)) {
+            return SSV;
+        }
+        if ("tsv".equals(collectionFormat)) {
+            return TSV;
+        }
+        return null;
+    }
+
+    static class NullCoercer extends ValueCoercer {
+        @Override
+        public Object coerce(List<String> values) {
+            return null;
+        }
+    }
+
+    static class ScalarCoercer extends ValueCoercer {
+        private final ReflectionUtils utils;
+        private final Property property;
+        private final Class<?> cls;
+
+        ScalarCoercer(ReflectionUtils utils, Property property, Class<?> cls) {
+            this.utils = utils;
+            this.property = property;
+            this.cls = cls;
+        }
+
+        @Override
+        public Object coerce(List<String> values) {
+            if (values == null || values.size() == 0) {
+                return null;
+            }
+            return utils.cast(values.get(0), property, cls);
+        }
+    }
+
+    static class ListCoercer extends ValueCoercer {
+        private final ReflectionUtils utils;
+        private final Property inner;
+        private final Class<?> innerClass;
+        private final Pattern delimiter;
+        private final boolean multi;
+
+        /**
+         * @param multi true for `collectionFormat: multi`, where each repeated value is one item
+         */
+        ListCoercer(ReflectionUtils utils, Property inner, Class<?> innerClass, Pattern delimiter, boolean multi) {
+            this.utils = utils;
+            this.inner = inner;
+            this.innerClass = innerClass;
+            this.delimiter = delimiter;
+            this.multi = multi;
+        }
+
+        @Override
+        public Object coerce(List<String> values) {
+            if (values == null || values.size() == 0) {
+                return null;
+            }
+            LOGGER.debug("casting `" + values + "` to " + List.class);
+            List<Object> output = new ArrayList<Object>();
+            if (inner == null || (delimiter == null && !multi)) {
+                return output;
+            }
+            for (String obj : values) {
+                if (StringUtils.isEmpty(obj)) {
+                    continue;
+                }
+                if (multi) {
+                    add(output, obj);
+                } else {
+                    for (String p : delimiter.split(obj)) {
+                        add(output, p);
+                    }
+                }
+            }
+            return output;
+        }
+
+        private void add(List<Object> output, String value) {
+            Object ob = utils.cast(value, inner, innerClass);
+            if (ob != null) {
+                output.add(ob);
+            }
+        }
+    }
+}
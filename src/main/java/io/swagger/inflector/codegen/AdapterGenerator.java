@@ -0,0 +1,423 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.codegen;
+
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.invocation.ControllerInvoker;
+import io.swagger.inflector.invocation.ControllerInvokers;
+import io.swagger.inflector.invocation.InvokerFactory;
+import io.swagger.inflector.invocation.OperationBinding;
+import io.swagger.inflector.invocation.OperationBindingFactory;
+import io.swagger.inflector.utils.ClassIndex;
+import io.swagger.inflector.utils.ReflectionUtils;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates an {@link InvokerFactory} with one plain Java invoker per controller method bound by
+ * the spec, so operations are dispatched with a direct call instead of a method handle or
+ * reflection.  Methods are bound exactly as {@link SwaggerInflector} binds them at runtime, so the
+ * generator runs against the compiled controllers, for instance from the `inflector-maven-plugin`
+ * in the `process-classes` phase.  The factory also implements {@link OperationBindingFactory},
+ * recording which method each operation was bound to, so the controllers aren't scanned again at
+ * startup.  It is compiled next to the controllers and registered in `META-INF/services`, where
+ * {@link ControllerInvokers} picks it up.
+ * <p>
+ * Controller classes are only loaded and inspected, never instantiated or initialized, and the
+ * factory is compiled for the Java version the project targets.
+ * <p>
+ * Operations whose controller class exists but has no matching method are reported, since they
+ * would silently be mocked at runtime.
+ */
+public class AdapterGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdapterGenerator.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static final String DEFAULT_CLASS_NAME = "io.swagger.inflector.generated.InflectorInvokers";
+    public static final String DEFAULT_TARGET = "1.7";
+
+    private final Configuration config;
+    private final ClassIndex classIndex;
+    private String className = DEFAULT_CLASS_NAME;
+    private String target = DEFAULT_TARGET;
+    private File basedir;
+    private final Map<String, Method> methods = new LinkedHashMap<String, Method>();
+    private final Map<String, OperationBinding> bindings = new LinkedHashMap<String, OperationBinding>();
+    private final List<String> unboundOperations = new ArrayList<String>();
+
+    /**
+     * @param classLoader loader for the controllers and models named by the configuration
+     */
+    public AdapterGenerator(Configuration config, ClassLoader classLoader) {
+        this.config = config;
+        this.classIndex = new ClassIndex(classLoader, false);
+    }
+
+    public AdapterGenerator className(String className) {
+        this.className = className;
+        return this;
+    }
+
+    /**
+     * @param target the Java version the factory is compiled for, such as `1.7` or `8`, or null
+     *               for {@link #DEFAULT_TARGET}
+     */
+    public AdapterGenerator target(String target) {
+        this.target = target == null ? DEFAULT_TARGET : target;
+        return this;
+    }
+
+    /**
+     * @param basedir the directory relative spec locations are resolved against, rather than the
+     *                working directory
+     */
+    public AdapterGenerator basedir(File basedir) {
+        this.basedir = basedir;
+        return this;
+    }
+
+    /**
+     * Generates, compiles and registers the factory.
+     *
+     * @param configFile      the inflector configuration, which must exist
+     * @param basedir         the directory relative spec locations are resolved against
+     * @param classpath       classpath of the controllers, used to compile the factory
+     * @param target          the Java version the project compiles for, or null for {@link #DEFAULT_TARGET}
+     * @return the operations which have a controller class but no matching method
+     */
+    public static List<String> run(File configFile, File basedir, File sourceDirectory, File classesDirectory, String classpath,
+                                   String target) throws IOException {
+        Configuration config = Configuration.readFile(configFile);
+        AdapterGenerator generator = new AdapterGenerator(config, AdapterGenerator.class.getClassLoader())
+                .basedir(basedir)
+                .target(target);
+        generator.bind();
+        File source = generator.writeSource(sourceDirectory);
+        generator.compile(source, classesDirectory, classpath);
+        generator.writeServiceFile(classesDirectory);
+        LOGGER.info("generated invokers for " + generator.methods.size() + " controller methods and bindings for "
+                + generator.bindings.size() + " operations in " + generator.className);
+        return generator.getUnboundOperations();
+    }
+
+    public static List<String> run(File configFile, File basedir, File sourceDirectory, File classesDirectory, String classpath)
+            throws IOException {
+        return run(configFile, basedir, sourceDirectory, classesDirectory, classpath, null);
+    }
+
+    /**
+     * Usage: {@code AdapterGenerator <config> <source dir> <classes dir> [classpath] [target]}
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: " + AdapterGenerator.class.getName()
+                    + " <config> <source dir> <classes dir> [classpath] [target]");
+            System.exit(1);
+        }
+        String classpath = args.length > 3 ? args[3] : System.getProperty("java.class.path");
+        String target = args.length > 4 ? args[4] : null;
+        File basedir = new File("").getAbsoluteFile();
+        for (String operation : run(new File(args[0]), basedir, new File(args[1]), new File(args[2]), classpath, target)) {
+            System.err.println("no controller method matches " + operation);
+        }
+    }
+
+    /**
+     * Binds every operation of the configured specs to its controller method.
+     */
+    public AdapterGenerator bind() {
+        for (Configuration spec : config.getSpecConfigurations()) {
+            bind(spec);
+        }
+        return this;
+    }
+
+    private void bind(Configuration spec) {
+        String location = resolve(spec.getSwaggerUrl());
+        Swagger swagger = new SwaggerParser().read(location);
+        if (swagger == null) {
+            throw new IllegalArgumentException("unable to read " + location);
+        }
+        ReflectionUtils utils = new ReflectionUtils();
+        utils.setConfiguration(spec);
+        utils.setClassIndex(classIndex);
+        Map<String, Model> definitions = swagger.getDefinitions();
+        for (Map.Entry<String, Path> path : swagger.getPaths().entrySet()) {
+            for (Map.Entry<String, Operation> entry : SwaggerInflector.getOperations(path.getValue()).entrySet()) {
+                Operation operation = entry.getValue();
+                Class<?>[] args = utils.getOperationParameterClasses(operation, definitions);
+                OperationBinding binding = utils.findOperationBinding(path.getKey(), entry.getKey(), operation, args);
+                if (binding == null) {
+                    if (hasControllerClass(utils, operation)) {
+                        unboundOperations.add(entry.getKey() + " " + path.getKey());
+                    }
+                } else if (isAccessible(binding.getMethod())) {
+                    methods.put(ControllerInvokers.getKey(binding.getMethod()), binding.getMethod());
+                    if (isPublic(binding.getControllerClass())) {
+                        bindings.put(ControllerInvokers.getLookupKey(utils.getControllerName(operation),
+                                utils.getMethodName(path.getKey(), entry.getKey(), operation), args), binding);
+                    }
+                } else {
+                    LOGGER.info("skipping " + binding.getMethod() + ", it can't be called from generated code");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a relative spec location resolved against the base directory, if it names a file there
+     */
+    private String resolve(String location) {
+        if (basedir == null || location == null || location.contains("://") || location.startsWith("file:")
+                || new File(location).isAbsolute()) {
+            return location;
+        }
+        File file = new File(basedir, location);
+        return file.isFile() ? file.getPath() : location;
+    }
+
+    public List<String> getUnboundOperations() {
+        return unboundOperations;
+    }
+
+    /**
+     * @return the source of the factory for the bound methods
+     */
+    public String generateSource() {
+        int dot = className.lastIndexOf('.');
+        String packageName = dot > 0 ? className.substring(0, dot) : null;
+        String simpleName = className.substring(dot + 1);
+
+        StringBuilder out = new StringBuilder();
+        if (packageName != null) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("/**\n * Generated by ").append(AdapterGenerator.class.getName()).append(" from ")
+                .append(StringUtils.join(config.getSwaggerUrls(), ", ")).append(", do not edit.\n */\n");
+        out.append("public class ").append(simpleName).append(" implements ").append(InvokerFactory.class.getName())
+                .append(", ").append(OperationBindingFactory.class.getName()).append(" {\n");
+        out.append("    @Override\n");
+        out.append("    public ").append(ControllerInvoker.class.getName()).append(" create(java.lang.reflect.Method method, Object controller) {\n");
+        out.append("        switch (").append(ControllerInvokers.class.getName()).append(".getKey(method)) {\n");
+        int i = 0;
+        for (Map.Entry<String, Method> entry : methods.entrySet()) {
+            out.append("            case \"").append(entry.getKey()).append("\":\n");
+            out.append("                return new Invoker").append(i++).append("((")
+                    .append(typeName(entry.getValue().getDeclaringClass())).append(") controller);\n");
+        }
+        out.append("            default:\n");
+        out.append("                return null;\n");
+        out.append("        }\n");
+        out.append("    }\n\n");
+
+        String binding = OperationBinding.class.getName();
+        out.append("    @Override\n");
+        out.append("    public ").append(binding).append(" find(String controller, String methodName, Class<?>[] parameterClasses) {\n");
+        out.append("        try {\n");
+        out.append("            switch (").append(ControllerInvokers.class.getName())
+                .append(".getLookupKey(controller, methodName, parameterClasses)) {\n");
+        for (Map.Entry<String, OperationBinding> entry : bindings.entrySet()) {
+            Method method = entry.getValue().getMethod();
+            out.append("                case \"").append(entry.getKey()).append("\":\n");
+            out.append("                    return binding(").append(typeName(entry.getValue().getControllerClass()))
+                    .append(".class, \"").append(method.getName()).append("\"");
+            for (Class<?> type : method.getParameterTypes()) {
+                out.append(", ").append(typeName(type)).append(".class");
+            }
+            out.append(");\n");
+        }
+        out.append("                default:\n");
+        out.append("                    return null;\n");
+        out.append("            }\n");
+        out.append("        } catch (NoSuchMethodException e) {\n");
+        out.append("            return null;\n");
+        out.append("        }\n");
+        out.append("    }\n\n");
+        out.append("    private static ").append(binding).append(" binding(Class<?> controllerClass, String name, Class<?>... types)\n");
+        out.append("            throws NoSuchMethodException {\n");
+        out.append("        return new ").append(binding).append("(controllerClass, controllerClass.getMethod(name, types));\n");
+        out.append("    }\n");
+
+        i = 0;
+        for (Method method : methods.values()) {
+            String controllerType = typeName(method.getDeclaringClass());
+            String name = "Invoker" + i++;
+            out.append("\n    static class ").append(name).append(" implements ").append(ControllerInvoker.class.getName()).append(" {\n");
+            out.append("        private final ").append(controllerType).append(" controller;\n\n");
+            out.append("        ").append(name).append("(").append(controllerType).append(" controller) {\n");
+            out.append("            this.controller = controller;\n");
+            out.append("        }\n\n");
+            out.append("        @Override\n");
+            out.append("        public Object invoke(Object[] args) throws Exception {\n");
+            out.append("            ");
+            boolean returns = !void.class.equals(method.getReturnType());
+            if (returns) {
+                out.append("return ");
+            }
+            out.append("controller.").append(method.getName()).append("(");
+            Class<?>[] types = method.getParameterTypes();
+            for (int j = 0; j < types.length; j++) {
+                if (j > 0) {
+                    out.append(", ");
+                }
+                out.append("(").append(typeName(box(types[j]))).append(") args[").append(j).append("]");
+            }
+            out.append(");\n");
+            if (!returns) {
+                out.append("            return null;\n");
+            }
+            out.append("        }\n\n");
+            out.append("        @Override\n");
+            out.append("        public String getMode() {\n");
+            out.append("            return \"").append(ControllerInvokers.GENERATED_MODE).append("\";\n");
+            out.append("        }\n");
+            out.append("    }\n");
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    public File writeSource(File sourceDirectory) throws IOException {
+        File source = new File(sourceDirectory, className.replace('.', File.separatorChar) + ".java");
+        Files.createDirectories(source.getParentFile().toPath());
+        Files.write(source.toPath(), generateSource().getBytes(UTF_8));
+        return source;
+    }
+
+    public void compile(File source, File classesDirectory, String classpath) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("no Java compiler available, adapters must be generated with a JDK");
+        }
+        Files.createDirectories(classesDirectory.toPath());
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, UTF_8);
+        try {
+            List<String> options = new ArrayList<String>(Arrays.asList("-d", classesDirectory.getPath(), "-classpath",
+                    classesDirectory.getPath() + File.pathSeparator + classpath));
+            // -source and -target as the project's own compiler uses them, since `--release` would
+            // reject controllers built against newer JDK APIs than the target; -Xlint:-options
+            // drops the warnings about the bootstrap class path and obsolete targets
+            options.addAll(Arrays.asList("-source", target, "-target", target, "-Xlint:-options"));
+            Boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(source)).call();
+            if (!Boolean.TRUE.equals(success)) {
+                StringBuilder message = new StringBuilder("unable to compile " + source);
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    message.append('\n').append(diagnostic.getMessage(null));
+                }
+                throw new IOException(message.toString());
+            }
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    public void writeServiceFile(File classesDirectory) throws IOException {
+        for (Class<?> service : new Class<?>[]{InvokerFactory.class, OperationBindingFactory.class}) {
+            File services = new File(classesDirectory, "META-INF/services/" + service.getName());
+            Files.createDirectories(services.getParentFile().toPath());
+            Files.write(services.toPath(), (className + "\n").getBytes(UTF_8));
+        }
+    }
+
+    private boolean hasControllerClass(ReflectionUtils utils, Operation operation) {
+        String name = utils.getControllerName(operation);
+        return name != null && (classIndex.findClass(name) != null || classIndex.findClass(name + "Controller") != null);
+    }
+
+    private static boolean isAccessible(Method method) {
+        if (!isPublic(method.getDeclaringClass())) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (!type.isPrimitive() && !isPublic(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> cls) {
+        for (Class<?> c = cls; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String typeName(Class<?> cls) {
+        return cls.getCanonicalName();
+    }
+
+    private static Class<?> box(Class<?> cls) {
+        if (!cls.isPrimitive()) {
+            return cls;
+        }
+        if (boolean.class.equals(cls)) {
+            return Boolean.class;
+        }
+        if (byte.class.equals(cls)) {
+            return Byte.class;
+        }
+        if (char.class.equals(cls)) {
+            return Character.class;
+        }
+        if (short.class.equals(cls)) {
+            return Short.class;
+        }
+        if (int.class.equals(cls)) {
+            return Integer.class;
+        }
+        if (long.class.equals(cls)) {
+            return Long.class;
+        }
+        if (float.class.equals(cls)) {
+            return Float.class;
+        }
+        return Double.class;
+    }
+}
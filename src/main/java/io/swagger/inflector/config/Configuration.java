@@ -22,7 +22,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class Configuration {
@@ -32,7 +36,24 @@ public class Configuration {
     private String controllerPackage;
     private String modelPackage;
     private String swaggerUrl;
+    private String basePath;
+    private List<SpecEntry> specs;
     private int invalidRequestCode;
+    private int rejectedRequestCode = 503;
+    private long bulkheadQueueTimeout = 1000;
+    private String controllerExecutor;
+    private boolean tracePinnedThreads;
+    private long multipartMemoryThreshold = 1024 * 1024;
+    private String multipartTempDir;
+    private boolean eagerMockResponses;
+    private boolean jacksonAfterburner;
+    private int startupParallelism;
+    private String startupSnapshot;
+    private boolean lazyBinding;
+    private boolean lazyBindingWarmup;
+    private String startupTimelinePath;
+    private long specReloadInterval;
+    private String location;
 
     public static Configuration read() {
         String configLocation = System.getProperty("config", "inflector.yaml");
@@ -47,13 +68,25 @@ public class Configuration {
 
     public static Configuration read(String configLocation) {
         try {
-            return Yaml.mapper().readValue(new File(configLocation), Configuration.class);
+            return readFile(new File(configLocation));
         } catch (Exception e) {
             LOGGER.error("Failed to read configuration", e);
-            return defaultConfiguration();
+            Configuration configuration = defaultConfiguration();
+            configuration.location = configLocation;
+            return configuration;
         }
     }
 
+    /**
+     * Reads a configuration file, without falling back to the default configuration when it
+     * can't be read.
+     */
+    public static Configuration readFile(File file) throws IOException {
+        Configuration configuration = Yaml.mapper().readValue(file, Configuration.class);
+        configuration.location = file.getPath();
+        return configuration;
+    }
+
     private static Configuration defaultConfiguration() {
         return new Configuration()
                 .controllerPackage("io.swagger.sample.controllers")
@@ -81,6 +114,19 @@ public class Configuration {
         return this;
     }
 
+    public Configuration spec(SpecEntry spec) {
+        if (specs == null) {
+            specs = new ArrayList<SpecEntry>();
+        }
+        specs.add(spec);
+        return this;
+    }
+
+    public Configuration controllerExecutor(String controllerExecutor) {
+        this.controllerExecutor = controllerExecutor;
+        return this;
+    }
+
     public Configuration() {
     }
 
@@ -139,6 +185,104 @@ public class Configuration {
         this.swaggerUrl = swaggerUrl;
     }
 
+    /**
+     * @return the path the operations are served under, or null for the spec's `basePath`
+     */
+    public String getBasePath() {
+        return basePath;
+    }
+
+    public void setBasePath(String basePath) {
+        this.basePath = basePath;
+    }
+
+    /**
+     * @return the specs served by the application instead of `swaggerUrl`, or null
+     */
+    public List<SpecEntry> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(List<SpecEntry> specs) {
+        this.specs = specs;
+    }
+
+    /**
+     * @return the urls of the specs served by the application
+     */
+    @JsonIgnore
+    public List<String> getSwaggerUrls() {
+        if (specs == null || specs.isEmpty()) {
+            return Collections.singletonList(swaggerUrl);
+        }
+        List<String> urls = new ArrayList<String>(specs.size());
+        for (SpecEntry spec : specs) {
+            urls.add(spec.getSwaggerUrl());
+        }
+        return urls;
+    }
+
+    /**
+     * Resolves the settings of each spec.  Without `specs` this is the configuration itself.
+     * Otherwise each entry gets a copy of this configuration with its url, base path, packages and
+     * model mappings, and a startup snapshot file of its own.
+     */
+    @JsonIgnore
+    public List<Configuration> getSpecConfigurations() {
+        if (specs == null || specs.isEmpty()) {
+            return Collections.singletonList(this);
+        }
+        List<Configuration> configurations = new ArrayList<Configuration>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            SpecEntry spec = specs.get(i);
+            Configuration configuration = copy();
+            configuration.swaggerUrl = spec.getSwaggerUrl();
+            if (spec.getBasePath() != null) {
+                configuration.basePath = spec.getBasePath();
+            }
+            if (spec.getControllerPackage() != null) {
+                configuration.controllerPackage = spec.getControllerPackage();
+            }
+            if (spec.getModelPackage() != null) {
+                configuration.modelPackage = spec.getModelPackage();
+            }
+            if (spec.getModelMappings() != null) {
+                configuration.setModelMappings(spec.getModelMappings());
+            }
+            if (startupSnapshot != null) {
+                configuration.startupSnapshot = startupSnapshot + "." + i;
+            }
+            configurations.add(configuration);
+        }
+        return configurations;
+    }
+
+    private Configuration copy() {
+        Configuration copy = new Configuration();
+        copy.modelMap.putAll(modelMap);
+        copy.controllerPackage = controllerPackage;
+        copy.modelPackage = modelPackage;
+        copy.swaggerUrl = swaggerUrl;
+        copy.basePath = basePath;
+        copy.invalidRequestCode = invalidRequestCode;
+        copy.rejectedRequestCode = rejectedRequestCode;
+        copy.bulkheadQueueTimeout = bulkheadQueueTimeout;
+        copy.controllerExecutor = controllerExecutor;
+        copy.tracePinnedThreads = tracePinnedThreads;
+        copy.multipartMemoryThreshold = multipartMemoryThreshold;
+        copy.multipartTempDir = multipartTempDir;
+        copy.eagerMockResponses = eagerMockResponses;
+        copy.jacksonAfterburner = jacksonAfterburner;
+        copy.startupParallelism = startupParallelism;
+        copy.startupSnapshot = startupSnapshot;
+        copy.lazyBinding = lazyBinding;
+        copy.lazyBindingWarmup = lazyBindingWarmup;
+        copy.startupTimelinePath = startupTimelinePath;
+        copy.specReloadInterval = specReloadInterval;
+        copy.location = location;
+        return copy;
+    }
+
     public void setInvalidRequestStatusCode(int code) {
         this.invalidRequestCode = code;
     }
@@ -146,4 +290,177 @@ public class Configuration {
     public int getInvalidRequestStatusCode() {
         return invalidRequestCode;
     }
-}
\ No newline at end of file
+
+    public void setRejectedRequestStatusCode(int code) {
+        this.rejectedRequestCode = code;
+    }
+
+    /**
+     * @return HTTP status returned when an operation's `x-inflector-max-concurrency` and
+     * `x-inflector-max-queue` limits are exhausted
+     */
+    public int getRejectedRequestStatusCode() {
+        return rejectedRequestCode;
+    }
+
+    /**
+     * @return milliseconds a request queued by `x-inflector-max-queue` waits before it is
+     * rejected, 1000 by default, 0 to wait until a permit is free
+     */
+    public long getBulkheadQueueTimeout() {
+        return bulkheadQueueTimeout;
+    }
+
+    public void setBulkheadQueueTimeout(long bulkheadQueueTimeout) {
+        this.bulkheadQueueTimeout = bulkheadQueueTimeout;
+    }
+
+    /**
+     * @return where controller methods are invoked: `container` (default), `virtual` or `platform`
+     */
+    public String getControllerExecutor() {
+        return controllerExecutor;
+    }
+
+    public void setControllerExecutor(String controllerExecutor) {
+        this.controllerExecutor = controllerExecutor;
+    }
+
+    public boolean isTracePinnedThreads() {
+        return tracePinnedThreads;
+    }
+
+    public void setTracePinnedThreads(boolean tracePinnedThreads) {
+        this.tracePinnedThreads = tracePinnedThreads;
+    }
+
+    /**
+     * @return bytes of a multipart part kept in memory before it is written to a temp file, -1
+     * to keep every part in memory
+     */
+    public long getMultipartMemoryThreshold() {
+        return multipartMemoryThreshold;
+    }
+
+    public void setMultipartMemoryThreshold(long multipartMemoryThreshold) {
+        this.multipartMemoryThreshold = multipartMemoryThreshold;
+    }
+
+    /**
+     * @return directory for spilled multipart parts and file parameters, null for
+     * `java.io.tmpdir`
+     */
+    public String getMultipartTempDir() {
+        return multipartTempDir;
+    }
+
+    public void setMultipartTempDir(String multipartTempDir) {
+        this.multipartTempDir = multipartTempDir;
+    }
+
+    /**
+     * @return true to build and serialize mock responses at startup rather than on their first
+     * request
+     */
+    public boolean isEagerMockResponses() {
+        return eagerMockResponses;
+    }
+
+    public void setEagerMockResponses(boolean eagerMockResponses) {
+        this.eagerMockResponses = eagerMockResponses;
+    }
+
+    /**
+     * @return true to register the Jackson Afterburner module on inflector's mappers, which
+     * replaces reflective bean access with generated bytecode
+     */
+    public boolean isJacksonAfterburner() {
+        return jacksonAfterburner;
+    }
+
+    public void setJacksonAfterburner(boolean jacksonAfterburner) {
+        this.jacksonAfterburner = jacksonAfterburner;
+    }
+
+    /**
+     * @return threads used to bind operations to controllers at startup, 0 for one per processor
+     * and 1 to bind them on the calling thread
+     */
+    public int getStartupParallelism() {
+        return startupParallelism;
+    }
+
+    public void setStartupParallelism(int startupParallelism) {
+        this.startupParallelism = startupParallelism;
+    }
+
+    /**
+     * @return file holding the parsed spec and operation bindings of the last boot, or null to
+     * resolve everything on every boot
+     */
+    public String getStartupSnapshot() {
+        return startupSnapshot;
+    }
+
+    public void setStartupSnapshot(String startupSnapshot) {
+        this.startupSnapshot = startupSnapshot;
+    }
+
+    /**
+     * @return true to register routes without binding them, so each operation is bound to its
+     * controller on its first request.  The first request pays for the binding, and asynchronous
+     * operations or ones with an executor are suspended on each request rather than registered as
+     * suspended; synchronous operations are served as if bound at startup.
+     */
+    public boolean isLazyBinding() {
+        return lazyBinding;
+    }
+
+    public void setLazyBinding(boolean lazyBinding) {
+        this.lazyBinding = lazyBinding;
+    }
+
+    /**
+     * @return true to bind the remaining lazily bound operations on a background thread once the
+     * application has started
+     */
+    public boolean isLazyBindingWarmup() {
+        return lazyBindingWarmup;
+    }
+
+    public void setLazyBindingWarmup(boolean lazyBindingWarmup) {
+        this.lazyBindingWarmup = lazyBindingWarmup;
+    }
+
+    /**
+     * @return path, below the spec's base path, serving the startup timeline as JSON, or null to
+     * only log it
+     */
+    public String getStartupTimelinePath() {
+        return startupTimelinePath;
+    }
+
+    public void setStartupTimelinePath(String startupTimelinePath) {
+        this.startupTimelinePath = startupTimelinePath;
+    }
+
+    /**
+     * @return milliseconds between checks of the spec and configuration files for changes, 0 to
+     * never reload them
+     */
+    public long getSpecReloadInterval() {
+        return specReloadInterval;
+    }
+
+    public void setSpecReloadInterval(long specReloadInterval) {
+        this.specReloadInterval = specReloadInterval;
+    }
+
+    /**
+     * @return the file the configuration was read from, or null if it was built in code
+     */
+    @JsonIgnore
+    public String getLocation() {
+        return location;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.config;
+
+import java.util.Map;
+
+/**
+ * One of several specs served by the same application.  Settings left out are taken from the
+ * enclosing {@link Configuration}.
+ */
+public class SpecEntry {
+    private String swaggerUrl;
+    private String basePath;
+    private String controllerPackage;
+    private String modelPackage;
+    private Map<String, String> modelMappings;
+
+    public SpecEntry swaggerUrl(String swaggerUrl) {
+        this.swaggerUrl = swaggerUrl;
+        return this;
+    }
+
+    public SpecEntry basePath(String basePath) {
+        this.basePath = basePath;
+        return this;
+    }
+
+    public SpecEntry controllerPackage(String controllerPackage) {
+        this.controllerPackage = controllerPackage;
+        return this;
+    }
+
+    public SpecEntry modelPackage(String modelPackage) {
+        this.modelPackage = modelPackage;
+        return this;
+    }
+
+    public String getSwaggerUrl() {
+        return swaggerUrl;
+    }
+
+    public void setSwaggerUrl(String swaggerUrl) {
+        this.swaggerUrl = swaggerUrl;
+    }
+
+    /**
+     * @return the path the spec's operations are served under, or null for the spec's own
+     * `basePath`
+     */
+    public String getBasePath() {
+        return basePath;
+    }
+
+    public void setBasePath(String basePath) {
+        this.basePath = basePath;
+    }
+
+    public String getControllerPackage() {
+        return controllerPackage;
+    }
+
+    public void setControllerPackage(String controllerPackage) {
+        this.controllerPackage = controllerPackage;
+    }
+
+    public String getModelPackage() {
+        return modelPackage;
+    }
+
+    public void setModelPackage(String modelPackage) {
+        this.modelPackage = modelPackage;
+    }
+
+    /**
+     * @return class names of models, by definition name, in addition to the configuration's
+     */
+    public Map<String, String> getModelMappings() {
+        return modelMappings;
+    }
+
+    public void setModelMappings(Map<String, String> modelMappings) {
+        this.modelMappings = modelMappings;
+    }
+}
@@ -24,26 +24,39 @@ import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 
 public class XmlExampleSerializer {
+    // looked up once, factories are thread-safe once configured
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+
     public String serialize(Example o) {
-        XMLStreamWriter writer = null;
         try {
-            XMLOutputFactory f = XMLOutputFactory.newFactory();
             ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-            writer = f.createXMLStreamWriter(out);
-
-            writer.writeStartDocument("UTF-8", "1.1");
-            writeTo(writer, o);
-            writer.close();
-            return out.toString();
+            serialize(o, out);
+            return out.toString("UTF-8");
         } catch (XMLStreamException e) {
             e.printStackTrace();
             return null;
+        } catch (UnsupportedEncodingException e) {
+            e.printStackTrace();
+            return null;
         }
     }
 
+    /**
+     * Writes the example as a UTF-8 document to the stream, which is flushed but left open.
+     */
+    public void serialize(Example o, OutputStream out) throws XMLStreamException {
+        XMLStreamWriter writer = FACTORY.createXMLStreamWriter(out, "UTF-8");
+        writer.writeStartDocument("UTF-8", "1.1");
+        writeTo(writer, o);
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
     public void writeTo(XMLStreamWriter writer, Example o) throws XMLStreamException {
         if (o instanceof ObjectExample) {
             ObjectExample or = (ObjectExample) o;
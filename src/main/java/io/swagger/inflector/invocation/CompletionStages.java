@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.invocation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Support for controller methods returning a {@code java.util.concurrent.CompletionStage}.  The
+ * stage and callback types are looked up by name and called reflectively, so that inflector
+ * still runs on Java 7, where no controller can return a stage.
+ */
+public class CompletionStages {
+    private static final Class<?> COMPLETION_STAGE = loadClass("java.util.concurrent.CompletionStage");
+    private static final Class<?> BI_CONSUMER = loadClass("java.util.function.BiConsumer");
+    private static final Method WHEN_COMPLETE = getMethod(COMPLETION_STAGE, "whenComplete", BI_CONSUMER);
+
+    public interface Callback {
+        void onSuccess(Object value);
+
+        void onFailure(Throwable throwable);
+    }
+
+    public static boolean isCompletionStage(Class<?> cls) {
+        return COMPLETION_STAGE != null && cls != null && COMPLETION_STAGE.isAssignableFrom(cls);
+    }
+
+    /**
+     * Registers the callback to run when the stage completes.  Completion exceptions are
+     * unwrapped before being passed on.
+     */
+    public static void whenComplete(Object stage, final Callback callback) {
+        Object action = Proxy.newProxyInstance(CompletionStages.class.getClassLoader(), new Class<?>[]{BI_CONSUMER},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getDeclaringClass() == Object.class) {
+                            if ("equals".equals(method.getName())) {
+                                return proxy == args[0];
+                            }
+                            if ("hashCode".equals(method.getName())) {
+                                return System.identityHashCode(proxy);
+                            }
+                            return "whenComplete(" + callback + ")";
+                        }
+                        Throwable throwable = (Throwable) args[1];
+                        if (throwable == null) {
+                            callback.onSuccess(args[0]);
+                        } else if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                            callback.onFailure(throwable.getCause());
+                        } else {
+                            callback.onFailure(throwable);
+                        }
+                        return null;
+                    }
+                });
+        try {
+            WHEN_COMPLETE.invoke(stage, action);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method getMethod(Class<?> cls, String name, Class<?>... types) {
+        if (cls == null) {
+            return null;
+        }
+        try {
+            return cls.getMethod(name, types);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
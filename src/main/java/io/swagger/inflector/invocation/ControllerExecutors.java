@@ -0,0 +1,123 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.invocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors for running controller invocations off the container thread.  Operations
+ * select one with the {@code controllerExecutor} configuration or the {@code x-inflector-executor}
+ * vendor extension.
+ */
+public class ControllerExecutors {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControllerExecutors.class);
+
+    /**
+     * invoke the controller on the container thread (the default)
+     */
+    public static final String CONTAINER = "container";
+    /**
+     * invoke the controller on a new virtual thread, or a platform thread on JVMs without them
+     */
+    public static final String VIRTUAL = "virtual";
+    /**
+     * invoke the controller on a shared pool of platform threads
+     */
+    public static final String PLATFORM = "platform";
+
+    private static final String TRACE_PINNED_THREADS = "jdk.tracePinnedThreads";
+
+    private static ExecutorService virtualExecutor;
+    private static ExecutorService platformExecutor;
+    private static boolean virtualThreadsSupported;
+
+    /**
+     * @return the executor for the mode, or null if the controller should run on the container thread
+     */
+    public static ExecutorService forMode(String mode) {
+        if (mode == null || CONTAINER.equalsIgnoreCase(mode)) {
+            return null;
+        }
+        if (VIRTUAL.equalsIgnoreCase(mode)) {
+            return virtual();
+        }
+        if (PLATFORM.equalsIgnoreCase(mode)) {
+            return platform();
+        }
+        LOGGER.warn("unknown controller executor `" + mode + "`, using the container thread");
+        return null;
+    }
+
+    public static synchronized boolean isVirtualThreadsSupported() {
+        virtual();
+        return virtualThreadsSupported;
+    }
+
+    /**
+     * Turns on the JDK's diagnostics for virtual threads that block while pinned to their carrier,
+     * for instance inside a {@code synchronized} block in a JDBC driver.  Must be called before the
+     * first virtual thread is started to take effect.
+     */
+    public static void enablePinningDiagnostics() {
+        if (System.getProperty(TRACE_PINNED_THREADS) == null) {
+            System.setProperty(TRACE_PINNED_THREADS, "short");
+            LOGGER.info("virtual thread pinning will be reported on stdout (" + TRACE_PINNED_THREADS + "=short)");
+        }
+    }
+
+    private static synchronized ExecutorService virtual() {
+        if (virtualExecutor == null) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                virtualExecutor = (ExecutorService) factory.invoke(null);
+                virtualThreadsSupported = true;
+                LOGGER.info("controllers will be invoked on virtual threads");
+            } catch (NoSuchMethodException e) {
+                LOGGER.warn("virtual threads are not supported by this JVM, using platform threads");
+                virtualExecutor = platform();
+            } catch (Exception e) {
+                LOGGER.warn("unable to create virtual thread executor, using platform threads", e);
+                virtualExecutor = platform();
+            }
+        }
+        return virtualExecutor;
+    }
+
+    private static synchronized ExecutorService platform() {
+        if (platformExecutor == null) {
+            platformExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "inflector-controller-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return platformExecutor;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.invocation;
+
+/**
+ * Calls a matched controller method.  Implementations are bound to the controller instance when
+ * the operation is registered, so the request path only supplies the arguments.
+ */
+public interface ControllerInvoker {
+    /**
+     * @return the value returned by the controller method
+     * @throws Exception any exception thrown by the controller method, unwrapped
+     */
+    Object invoke(Object[] args) throws Exception;
+
+    /**
+     * @return a short name for how the method is invoked, used for startup reporting
+     */
+    String getMode();
+}
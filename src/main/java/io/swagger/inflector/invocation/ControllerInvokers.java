@@ -0,0 +1,133 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.invocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ControllerInvokers {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControllerInvokers.class);
+
+    public static final String GENERATED_MODE = "generated";
+
+    private static final List<InvokerFactory> FACTORIES = new CopyOnWriteArrayList<InvokerFactory>(load(InvokerFactory.class));
+    private static final List<OperationBindingFactory> BINDING_FACTORIES =
+            new CopyOnWriteArrayList<OperationBindingFactory>(load(OperationBindingFactory.class));
+
+    /**
+     * Creates an invoker for the method.  Invokers from a registered {@link InvokerFactory} are
+     * used first, then a method handle invoker, falling back to reflection when the handle can't
+     * be created, for instance because the controller class isn't public.
+     */
+    public static ControllerInvoker create(Method method, Object controller) {
+        for (InvokerFactory factory : FACTORIES) {
+            ControllerInvoker invoker = factory.create(method, controller);
+            if (invoker != null) {
+                return invoker;
+            }
+        }
+        try {
+            return new MethodHandleInvoker(method, controller);
+        } catch (IllegalAccessException e) {
+            LOGGER.debug("unable to create method handle for " + method + ", using reflection", e);
+        } catch (RuntimeException e) {
+            LOGGER.debug("unable to create method handle for " + method + ", using reflection", e);
+        }
+        return new ReflectionInvoker(method, controller);
+    }
+
+    public static void register(InvokerFactory factory) {
+        FACTORIES.add(factory);
+    }
+
+    public static boolean unregister(InvokerFactory factory) {
+        return FACTORIES.remove(factory);
+    }
+
+    /**
+     * Looks up the binding of an operation in the registered {@link OperationBindingFactory}s.
+     * A binding which no longer matches the classpath, for instance because the controller
+     * changed since it was generated, is ignored.
+     *
+     * @return the binding, or null if the operation has to be bound by scanning its controller
+     */
+    public static OperationBinding findBinding(String controller, String methodName, Class<?>[] parameterClasses) {
+        for (OperationBindingFactory factory : BINDING_FACTORIES) {
+            try {
+                OperationBinding binding = factory.find(controller, methodName, parameterClasses);
+                if (binding != null) {
+                    return binding;
+                }
+            } catch (LinkageError e) {
+                LOGGER.debug("ignoring stale binding of " + getLookupKey(controller, methodName, parameterClasses), e);
+            }
+        }
+        return null;
+    }
+
+    public static void register(OperationBindingFactory factory) {
+        BINDING_FACTORIES.add(factory);
+    }
+
+    public static boolean unregister(OperationBindingFactory factory) {
+        return BINDING_FACTORIES.remove(factory);
+    }
+
+    /**
+     * @return the key generated invokers are looked up by, the method's declaring class, name and
+     * parameter types.  An invoker generated for an older signature of the method doesn't match.
+     */
+    public static String getKey(Method method) {
+        return getLookupKey(method.getDeclaringClass().getName(), method.getName(), method.getParameterTypes());
+    }
+
+    /**
+     * @return the key generated bindings are looked up by, the inputs of the operation's
+     * controller lookup
+     */
+    public static String getLookupKey(String controller, String methodName, Class<?>[] types) {
+        StringBuilder builder = new StringBuilder(controller).append('#').append(methodName).append('(');
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(types[i].getName());
+        }
+        return builder.append(')').toString();
+    }
+
+    private static <T> List<T> load(Class<T> type) {
+        List<T> factories = new ArrayList<T>();
+        try {
+            for (T factory : ServiceLoader.load(type, ControllerInvokers.class.getClassLoader())) {
+                LOGGER.debug("found " + type.getSimpleName() + " " + factory.getClass().getName());
+                factories.add(factory);
+            }
+        } catch (ServiceConfigurationError e) {
+            LOGGER.warn("unable to load " + type.getSimpleName() + "s", e);
+        }
+        return factories;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.invocation;
+
+import java.lang.reflect.Method;
+
+/**
+ * Supplies invokers compiled ahead of time, such as the ones written by
+ * {@link io.swagger.inflector.codegen.AdapterGenerator}.  Factories are discovered with
+ * {@link java.util.ServiceLoader} or registered with {@link ControllerInvokers#register}.
+ */
+public interface InvokerFactory {
+    /**
+     * @return an invoker calling the method on the controller, or null if this factory has none
+     * for the method
+     */
+    ControllerInvoker create(Method method, Object controller);
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.invocation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes the controller through a {@link MethodHandle} bound to the controller instance and
+ * adapted to a fixed {@code (Object[])Object} shape.  The handle is held per instance, not in a
+ * static final field, so the JIT does not treat it as a constant and cannot inline through it;
+ * it saves the reflective access checks and argument copying of {@link ReflectionInvoker}, which
+ * only pays off where one call site serves many operations (see the InvokerBenchmark test).
+ * Invokers generated at build time call the controller directly.
+ */
+public class MethodHandleInvoker implements ControllerInvoker {
+    public static final String MODE = "method-handle";
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final MethodHandle handle;
+
+    public MethodHandleInvoker(Method method, Object controller) throws IllegalAccessException {
+        MethodHandle target = MethodHandles.publicLookup().unreflect(method);
+        this.handle = target.bindTo(controller)
+                .asSpreader(Object[].class, method.getParameterTypes().length)
+                .asType(INVOKER_TYPE);
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Exception e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public String getMode() {
+        return MODE;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.invocation;
+
+import java.lang.reflect.Method;
+
+/**
+ * The controller class and method an operation was bound to ahead of time.
+ */
+public class OperationBinding {
+    private final Class<?> controllerClass;
+    private final Method method;
+
+    /**
+     * @param controllerClass the class instantiated as the controller, which may be a subclass of
+     *                        the method's declaring class
+     */
+    public OperationBinding(Class<?> controllerClass, Method method) {
+        this.controllerClass = controllerClass;
+        this.method = method;
+    }
+
+    public Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+}
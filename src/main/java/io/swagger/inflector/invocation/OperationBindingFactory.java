@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.invocation;
+
+/**
+ * Supplies the controller methods operations were bound to at build time, such as the ones
+ * recorded by {@link io.swagger.inflector.codegen.AdapterGenerator}, so operations are bound
+ * without scanning their controller at startup.  Factories are discovered with
+ * {@link java.util.ServiceLoader} or registered with {@link ControllerInvokers#register}.
+ */
+public interface OperationBindingFactory {
+    /**
+     * @param controller       the controller class name looked up for the operation, before the
+     *                         `Controller` suffix is tried
+     * @param methodName       the method name looked up for the operation
+     * @param parameterClasses the classes the operation's parameters are bound to, starting with
+     *                         the request context
+     * @return the binding, or null if this factory has none for the lookup
+     */
+    OperationBinding find(String controller, String methodName, Class<?>[] parameterClasses);
+}
@@ -19,30 +19,139 @@ package io.swagger.inflector.processors;
 import javax.ws.rs.core.MediaType;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Registry of the processors which read body parameters.  Processors are kept in a copy-on-write
+ * array ordered by priority, highest first, and then by registration order.  The processor for a
+ * media type is resolved once and cached, including a negative entry for unsupported types, so
+ * reading a body is a single map lookup.  Registering a processor clears the cache.
+ */
 public class EntityProcessorFactory {
-    private static List<EntityProcessor> PROCESSORS = new ArrayList<EntityProcessor>();
+    public static final int DEFAULT_PRIORITY = 0;
+
+    // bounds the cache against clients sending arbitrary content types
+    static final int MAX_CACHED_TYPES = 256;
+
+    private static final EntityProcessor UNSUPPORTED = new EntityProcessor() {
+        @Override
+        public boolean supports(MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public Object process(MediaType mediaType, InputStream entityStream, Class<?> cls) {
+            return null;
+        }
+    };
+
+    private static volatile Registration[] PROCESSORS = new Registration[0];
+    private static final ConcurrentMap<MediaType, EntityProcessor> RESOLVED = new ConcurrentHashMap<MediaType, EntityProcessor>();
 
     static {
-        // handles yaml, json, xml
-        PROCESSORS.add(new JacksonProcessor());
+        // handles yaml, json, xml, smile, cbor
+        addProcessor(new JacksonProcessor());
     }
 
     public static void addProcessor(EntityProcessor processor) {
-        PROCESSORS.add(processor);
+        addProcessor(processor, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * @param priority processors with a higher priority are asked first, ties go to the
+     *                 processor registered first
+     */
+    public static synchronized void addProcessor(EntityProcessor processor, int priority) {
+        Registration[] current = PROCESSORS;
+        Registration[] updated = Arrays.copyOf(current, current.length + 1);
+        int i = current.length;
+        while (i > 0 && updated[i - 1].priority < priority) {
+            updated[i] = updated[i - 1];
+            i--;
+        }
+        updated[i] = new Registration(processor, priority);
+        PROCESSORS = updated;
+        RESOLVED.clear();
+    }
+
+    public static synchronized boolean removeProcessor(EntityProcessor processor) {
+        Registration[] current = PROCESSORS;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].processor == processor) {
+                Registration[] updated = new Registration[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                PROCESSORS = updated;
+                RESOLVED.clear();
+                return true;
+            }
+        }
+        return false;
     }
 
     public static Object readValue(MediaType mediaType, InputStream entityStream, Class<?> class1) {
-        for (EntityProcessor p : getProcessors()) {
-            if (p.supports(mediaType)) {
-                return p.process(mediaType, entityStream, class1);
+        EntityProcessor processor = getProcessor(mediaType);
+        if (processor == null) {
+            return null;
+        }
+        return processor.process(mediaType, entityStream, class1);
+    }
+
+    /**
+     * @return the processor for the media type, or null if none supports it.  Parameters such as
+     * the charset don't affect which processor is chosen.
+     */
+    public static EntityProcessor getProcessor(MediaType mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+        MediaType key = mediaType.getParameters().isEmpty() ? mediaType : new MediaType(mediaType.getType(), mediaType.getSubtype());
+        EntityProcessor processor = RESOLVED.get(key);
+        if (processor == null) {
+            Registration[] processors = PROCESSORS;
+            processor = resolve(processors, key);
+            if (RESOLVED.size() < MAX_CACHED_TYPES
+                    && RESOLVED.putIfAbsent(key, processor) == null
+                    && processors != PROCESSORS) {
+                // a processor was registered while resolving, don't keep the stale answer
+                RESOLVED.remove(key, processor);
             }
         }
-        return null;
+        return processor == UNSUPPORTED ? null : processor;
     }
 
+    /**
+     * @return a copy of the registered processors in the order they are asked.  Changing it
+     * doesn't change the registrations, use {@link #addProcessor} and {@link #removeProcessor}.
+     */
     public static List<EntityProcessor> getProcessors() {
-        return PROCESSORS;
+        Registration[] current = PROCESSORS;
+        List<EntityProcessor> processors = new ArrayList<EntityProcessor>(current.length);
+        for (Registration registration : current) {
+            processors.add(registration.processor);
+        }
+        return processors;
+    }
+
+    private static EntityProcessor resolve(Registration[] processors, MediaType mediaType) {
+        for (Registration registration : processors) {
+            if (registration.processor.supports(mediaType)) {
+                return registration.processor;
+            }
+        }
+        return UNSUPPORTED;
+    }
+
+    static class Registration {
+        final EntityProcessor processor;
+        final int priority;
+
+        Registration(EntityProcessor processor, int priority) {
+            this.processor = processor;
+            this.priority = priority;
+        }
     }
 }
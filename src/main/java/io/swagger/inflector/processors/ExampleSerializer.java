@@ -16,6 +16,9 @@
 
 package io.swagger.inflector.processors;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.swagger.inflector.examples.XmlExampleSerializer;
 import io.swagger.inflector.examples.models.Example;
@@ -25,21 +28,38 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
+/**
+ * Writes examples as JSON, XML, YAML, Smile or CBOR straight to the response stream.  JSON is pretty printed
+ * when the request has a `pretty` query parameter other than `false`, or by default when
+ * {@link #setPrettyPrint} is set and the parameter is absent.
+ */
 @Provider
-@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, "application/yaml"})
+@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, "application/yaml",
+        "application/x-jackson-smile", "application/cbor"})
 public class ExampleSerializer implements MessageBodyWriter<Example> {
+    public static final String PRETTY_PARAMETER = "pretty";
+
+    private static final XmlExampleSerializer XML = new XmlExampleSerializer();
+
     static boolean prettyPrint = false;
     Logger LOGGER = LoggerFactory.getLogger(ExampleSerializer.class);
 
+    @Context
+    UriInfo uriInfo;
+
     static {
         SimpleModule simpleModule = new SimpleModule();
         simpleModule.addSerializer(new JsonExampleSerializer());
@@ -50,6 +70,19 @@ public class ExampleSerializer implements MessageBodyWriter<Example> {
         ExampleSerializer.prettyPrint = shouldPrettyPrint;
     }
 
+    /**
+     * @return true if JSON should be pretty printed for the request
+     */
+    public static boolean isPrettyPrint(UriInfo uriInfo) {
+        if (uriInfo != null) {
+            String pretty = uriInfo.getQueryParameters().getFirst(PRETTY_PARAMETER);
+            if (pretty != null) {
+                return !"false".equalsIgnoreCase(pretty);
+            }
+        }
+        return prettyPrint;
+    }
+
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations,
                                MediaType mediaType) {
@@ -69,19 +102,61 @@ public class ExampleSerializer implements MessageBodyWriter<Example> {
                         MediaType mediaType,
                         MultivaluedMap<String, Object> headers,
                         OutputStream out) throws IOException {
-        if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
-            if (prettyPrint) {
-                out.write(Json.pretty().writeValueAsString(data).getBytes("utf-8"));
-            } else {
-                out.write(Json.mapper().writeValueAsString(data).getBytes("utf-8"));
-            }
-        } else if (mediaType.toString().startsWith("application/yaml")) {
+        if (isYaml(mediaType)) {
             headers.remove("Content-Type");
             headers.add("Content-Type", "application/yaml");
-            out.write(Yaml.mapper().writeValueAsString(data).getBytes("utf-8"));
+        }
+        serialize(data, mediaType, isPrettyPrint(uriInfo), out);
+    }
+
+    /**
+     * Writes the example as JSON, XML, YAML, Smile or CBOR, leaving the stream open.  Nothing is written for
+     * any other media type.
+     *
+     * @return true if the media type is supported
+     */
+    public static boolean serialize(Example data, MediaType mediaType, boolean pretty, OutputStream out) throws IOException {
+        if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+            write(Json.mapper(), data, pretty, out);
+        } else if (isYaml(mediaType)) {
+            write(Yaml.mapper(), data, false, out);
         } else if (mediaType.isCompatible(MediaType.APPLICATION_XML_TYPE)) {
-            out.write(new XmlExampleSerializer().serialize(data).getBytes("utf-8"));
+            try {
+                XML.serialize(data, out);
+            } catch (XMLStreamException e) {
+                throw new IOException("unable to write example as xml", e);
+            }
+        } else if (mediaType.isCompatible(JacksonProcessor.APPLICATION_SMILE_TYPE)) {
+            write(JacksonProcessor.smileMapper(), data, false, out);
+        } else if (mediaType.isCompatible(JacksonProcessor.APPLICATION_CBOR_TYPE)) {
+            write(JacksonProcessor.cborMapper(), data, false, out);
+        } else {
+            return false;
         }
+        return true;
+    }
+
+    /**
+     * @return the example serialized as JSON, XML, YAML, Smile or CBOR, or null for any other
+     * media type
+     */
+    public static byte[] serialize(Example data, MediaType mediaType, boolean pretty) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return serialize(data, mediaType, pretty, out) ? out.toByteArray() : null;
     }
-}
 
+    private static void write(ObjectMapper mapper, Example data, boolean pretty, OutputStream out) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // the container owns the output stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (pretty) {
+            generator.useDefaultPrettyPrinter();
+        }
+        mapper.writeValue(generator, data);
+        generator.close();
+    }
+
+    private static boolean isYaml(MediaType mediaType) {
+        return mediaType.toString().startsWith("application/yaml");
+    }
+}
@@ -16,6 +16,15 @@
 
 package io.swagger.inflector.processors;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import io.swagger.util.Json;
 import io.swagger.util.Yaml;
@@ -25,11 +34,81 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class JacksonProcessor implements EntityProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(JacksonProcessor.class);
 
+    public static final MediaType APPLICATION_SMILE_TYPE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType APPLICATION_CBOR_TYPE = new MediaType("application", "cbor");
+
     private static XmlMapper XML = new XmlMapper();
+    private static ObjectMapper SMILE = configure(new ObjectMapper(new SmileFactory()));
+    private static ObjectMapper CBOR = configure(new ObjectMapper(new CBORFactory()));
+
+    // readers with the mappers' own deserialization features, for callers without a precomputed set
+    private static final ConcurrentMap<Class<?>, Readers> DEFAULT_READERS = new ConcurrentHashMap<Class<?>, Readers>();
+
+    static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+    private static boolean afterburner;
+
+    /**
+     * @return the mapper for `application/x-jackson-smile`, configured like {@link Json#mapper()}
+     */
+    public static ObjectMapper smileMapper() {
+        return SMILE;
+    }
+
+    /**
+     * @return the mapper for `application/cbor`, configured like {@link Json#mapper()}
+     */
+    public static ObjectMapper cborMapper() {
+        return CBOR;
+    }
+
+    /**
+     * Registers the Afterburner module, which generates bytecode for bean property access, on the
+     * JSON, YAML, XML, Smile and CBOR mappers.  Readers created before this call keep reflective
+     * access, so it should run before the operations are registered.
+     *
+     * @return false if `jackson-module-afterburner` is not on the classpath
+     */
+    public static synchronized boolean enableAfterburner() {
+        if (afterburner) {
+            return true;
+        }
+        Module module;
+        try {
+            module = (Module) Class.forName(AFTERBURNER_MODULE).newInstance();
+        } catch (ClassNotFoundException e) {
+            LOGGER.warn("jackson-module-afterburner is not on the classpath, using reflection for bean access");
+            return false;
+        } catch (Exception e) {
+            LOGGER.warn("unable to create " + AFTERBURNER_MODULE, e);
+            return false;
+        }
+        Json.mapper().registerModule(module);
+        Yaml.mapper().registerModule(module);
+        XML.registerModule(module);
+        SMILE.registerModule(module);
+        CBOR.registerModule(module);
+        DEFAULT_READERS.clear();
+        afterburner = true;
+        LOGGER.info("registered Jackson Afterburner module");
+        return true;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        SimpleModule simpleModule = new SimpleModule();
+        simpleModule.addSerializer(new JsonExampleSerializer());
+        mapper.registerModule(simpleModule);
+        return mapper;
+    }
 
     @Override
     public boolean supports(MediaType mediaType) {
@@ -39,7 +118,10 @@ public class JacksonProcessor implements EntityProcessor {
         if (MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType)) {
             return true;
         }
-        if (mediaType.toString().equalsIgnoreCase("application/yaml")) {
+        if (isYaml(mediaType)) {
+            return true;
+        }
+        if (APPLICATION_SMILE_TYPE.isCompatible(mediaType) || APPLICATION_CBOR_TYPE.isCompatible(mediaType)) {
             return true;
         }
         return false;
@@ -47,20 +129,108 @@ public class JacksonProcessor implements EntityProcessor {
 
     @Override
     public Object process(MediaType mediaType, InputStream entityStream, Class<?> cls) {
+        Readers readers = DEFAULT_READERS.get(cls);
+        if (readers == null) {
+            readers = readers(cls, null);
+            Readers existing = DEFAULT_READERS.putIfAbsent(cls, readers);
+            if (existing != null) {
+                readers = existing;
+            }
+        }
+        return process(mediaType, entityStream, readers);
+    }
+
+    /**
+     * Reads the entity with readers precomputed by {@link #readers}, which skips resolving the
+     * type and deserializer on the mappers' shared caches.
+     */
+    public Object process(MediaType mediaType, InputStream entityStream, Readers readers) {
+        ObjectReader reader = readers.get(mediaType);
+        if (reader == null) {
+            return null;
+        }
         try {
+            return reader.readValue(entityStream);
+        } catch (IOException e) {
+            LOGGER.error("unable to extract entity from content-type `" + mediaType + "` to " + readers.cls.getCanonicalName(), e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates the readers for a target class, one per supported media type.  The readers are
+     * bound to the mappers' configuration at the time they are created.
+     *
+     * @param failOnUnknownProperties overrides {@link DeserializationFeature#FAIL_ON_UNKNOWN_PROPERTIES}
+     *                                for every media type, or null to keep each mapper's setting
+     */
+    public static Readers readers(Class<?> cls, Boolean failOnUnknownProperties) {
+        return new Readers(cls,
+                configure(Json.mapper().reader(cls), failOnUnknownProperties),
+                configure(XML.reader(cls), failOnUnknownProperties),
+                configure(Yaml.mapper().reader(cls), failOnUnknownProperties),
+                configure(SMILE.reader(cls), failOnUnknownProperties),
+                configure(CBOR.reader(cls), failOnUnknownProperties));
+    }
+
+    private static ObjectReader configure(ObjectReader reader, Boolean failOnUnknownProperties) {
+        if (failOnUnknownProperties == null) {
+            return reader;
+        }
+        return failOnUnknownProperties
+                ? reader.with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                : reader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static boolean isYaml(MediaType mediaType) {
+        return "application".equalsIgnoreCase(mediaType.getType()) && "yaml".equalsIgnoreCase(mediaType.getSubtype());
+    }
+
+    /**
+     * Immutable set of {@link ObjectReader}s for one target class, safe to share between requests.
+     */
+    public static class Readers {
+        private final Class<?> cls;
+        private final ObjectReader json;
+        private final ObjectReader xml;
+        private final ObjectReader yaml;
+        private final ObjectReader smile;
+        private final ObjectReader cbor;
+
+        Readers(Class<?> cls, ObjectReader json, ObjectReader xml, ObjectReader yaml, ObjectReader smile, ObjectReader cbor) {
+            this.cls = cls;
+            this.json = json;
+            this.xml = xml;
+            this.yaml = yaml;
+            this.smile = smile;
+            this.cbor = cbor;
+        }
+
+        public Class<?> getTargetClass() {
+            return cls;
+        }
+
+        /**
+         * @return the reader for the media type, or null if it isn't supported
+         */
+        public ObjectReader get(MediaType mediaType) {
             if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
-                return Json.mapper().readValue(entityStream, cls);
+                return json;
             }
             if (MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType)) {
-                return XML.readValue(entityStream, cls);
+                return xml;
             }
-            if (mediaType.toString().equalsIgnoreCase("application/yaml")) {
-                return Yaml.mapper().readValue(entityStream, cls);
+            if (isYaml(mediaType)) {
+                return yaml;
             }
-        } catch (IOException e) {
-            LOGGER.error("unable to extract entity from content-type `" + mediaType + "` to " + cls.getCanonicalName(), e);
+            if (APPLICATION_SMILE_TYPE.isCompatible(mediaType)) {
+                return smile;
+            }
+            if (APPLICATION_CBOR_TYPE.isCompatible(mediaType)) {
+                return cbor;
+            }
+            return null;
         }
-
-        return null;
     }
-}
\ No newline at end of file
+}
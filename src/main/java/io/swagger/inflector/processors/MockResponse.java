@@ -0,0 +1,209 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.processors;
+
+import io.swagger.inflector.examples.ExampleBuilder;
+import io.swagger.inflector.examples.models.Example;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The mock response of an operation without a controller.  The example is built once from the
+ * operation's 2xx or default response, and serialized at most once per media type, plus once
+ * more for pretty printed JSON; the bytes are then written as-is for every request which
+ * negotiates that type.
+ */
+public class MockResponse {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockResponse.class);
+
+    static final MediaType APPLICATION_YAML_TYPE = new MediaType("application", "yaml");
+    static final MediaType[] MEDIA_TYPES = {
+            MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE, APPLICATION_YAML_TYPE,
+            JacksonProcessor.APPLICATION_SMILE_TYPE, JacksonProcessor.APPLICATION_CBOR_TYPE};
+    // cached in place of the bytes of a media type the example can't be serialized as
+    private static final byte[] FAILED = new byte[0];
+
+    private final int status;
+    private final Object output;
+    private final boolean example;
+    // one slot per media type, followed by pretty printed JSON
+    private final AtomicReferenceArray<byte[]> serialized;
+
+    public MockResponse(int status, Object output) {
+        this.status = status;
+        this.output = output;
+        this.example = output instanceof Example;
+        this.serialized = new AtomicReferenceArray<byte[]>(MEDIA_TYPES.length + 1);
+    }
+
+    private MockResponse(int status, byte[][] payloads) {
+        this.status = status;
+        this.output = null;
+        this.example = true;
+        this.serialized = new AtomicReferenceArray<byte[]>(payloads);
+    }
+
+    /**
+     * Recreates a mock response from the payloads of {@link #getPayloads()}, without the example
+     * it was serialized from.
+     *
+     * @return the response, or null if the payloads don't match the supported media types
+     */
+    public static MockResponse restore(int status, List<byte[]> payloads) {
+        if (payloads == null) {
+            return new MockResponse(status, (Object) null);
+        }
+        if (payloads.size() != MEDIA_TYPES.length + 1) {
+            return null;
+        }
+        return new MockResponse(status, payloads.toArray(new byte[payloads.size()][]));
+    }
+
+    public static MockResponse create(Operation operation, Map<String, Model> definitions) {
+        Map<String, io.swagger.models.Response> responses = operation.getResponses();
+        if (responses == null) {
+            // TODO: might need to check possible response types
+            return new MockResponse(200, null);
+        }
+        String[] keys = new String[responses.keySet().size()];
+        Arrays.sort(responses.keySet().toArray(keys));
+        int code = 0;
+        String defaultKey = null;
+        for (String key : keys) {
+            if (key.startsWith("2")) {
+                defaultKey = key;
+                code = Integer.parseInt(key);
+                break;
+            }
+            if ("default".equals(key)) {
+                defaultKey = key;
+                code = 200;
+            }
+        }
+
+        io.swagger.models.Response response = responses.get(defaultKey);
+        return new MockResponse(code, ExampleBuilder.fromProperty(response.getSchema(), definitions));
+    }
+
+    /**
+     * Serializes the example for every supported media type up front.
+     */
+    public MockResponse prepare() {
+        if (example) {
+            for (int i = 0; i < MEDIA_TYPES.length; i++) {
+                getBytes(i, false);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param pretty whether JSON is pretty printed, see {@link ExampleSerializer#isPrettyPrint}
+     */
+    public Response toResponse(List<MediaType> acceptableMediaTypes, boolean pretty) {
+        if (!example && output == null) {
+            return Response.status(status).build();
+        }
+        if (example) {
+            for (MediaType acceptable : acceptableMediaTypes) {
+                for (int i = 0; i < MEDIA_TYPES.length; i++) {
+                    if (acceptable.isCompatible(MEDIA_TYPES[i])) {
+                        byte[] bytes = getBytes(i, pretty && i == 0);
+                        if (bytes != null) {
+                            return Response.status(status).type(MEDIA_TYPES[i]).entity(bytes).build();
+                        }
+                    }
+                }
+            }
+        }
+        // leave anything else to the registered writers
+        return Response.status(status).entity(output).build();
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Object getOutput() {
+        return output;
+    }
+
+    /**
+     * Serializes the example for every media type, pretty printed JSON included.
+     *
+     * @return the payloads in the order expected by {@link #restore}, null for a response without
+     * a body
+     * @throws IllegalStateException if the output is not an example and can't be stored as bytes
+     */
+    public List<byte[]> getPayloads() {
+        if (!example) {
+            if (output != null) {
+                throw new IllegalStateException("mock output " + output.getClass() + " is not an example");
+            }
+            return null;
+        }
+        List<byte[]> payloads = new ArrayList<byte[]>(MEDIA_TYPES.length + 1);
+        for (int i = 0; i < MEDIA_TYPES.length; i++) {
+            payloads.add(getBytes(i, false));
+        }
+        payloads.add(getBytes(0, true));
+        return payloads;
+    }
+
+    /**
+     * @return the serialized example, or null if it can't be serialized as the media type
+     */
+    private byte[] getBytes(int i, boolean pretty) {
+        int slot = pretty ? MEDIA_TYPES.length : i;
+        byte[] bytes = serialized.get(slot);
+        if (bytes == null && output != null) {
+            try {
+                bytes = ExampleSerializer.serialize((Example) output, MEDIA_TYPES[i], pretty);
+            } catch (IOException e) {
+                return failed(slot, i, e);
+            } catch (RuntimeException e) {
+                // e.g. XML for an example without a name
+                return failed(slot, i, e);
+            }
+            // a concurrent first request may serialize it too, either copy is equivalent
+            serialized.compareAndSet(slot, null, bytes);
+        }
+        return bytes == FAILED ? null : bytes;
+    }
+
+    /**
+     * Remembers that the example can't be serialized as the media type, so that later requests
+     * go straight to the registered writers instead of failing again.
+     */
+    private byte[] failed(int slot, int i, Exception e) {
+        if (serialized.compareAndSet(slot, null, FAILED)) {
+            LOGGER.warn("unable to serialize mock response as " + MEDIA_TYPES[i] + ", leaving it to the registered writers: " + e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.processors;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A response entity whose items are pulled from an iterator while the response is written,
+ * rather than being collected up front.  Controllers returning an {@code Iterator} or a
+ * {@code java.util.stream.Stream} are wrapped in one of these, and controllers with any other
+ * {@code Iterable} can opt in by returning {@link #of(Iterable)}.  Other iterables, such as a
+ * {@code JsonNode} or a {@code java.nio.file.Path}, are written as they are.  The stream type and
+ * its {@code iterator()} are looked up by name so that inflector still runs on Java 7.
+ */
+public class StreamingEntity implements AutoCloseable {
+    private static final Class<?> BASE_STREAM = loadBaseStream();
+    private static final Method ITERATOR = getIterator(BASE_STREAM);
+
+    private final Iterator<?> iterator;
+    private final AutoCloseable source;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public StreamingEntity(Iterator<?> iterator, AutoCloseable source) {
+        this.iterator = iterator;
+        this.source = source;
+    }
+
+    /**
+     * @return the items of the iterable, streamed into the response, closing the iterable
+     * afterwards if it is {@code AutoCloseable}
+     */
+    public static StreamingEntity of(Iterable<?> iterable) {
+        return new StreamingEntity(iterable.iterator(), closeable(iterable));
+    }
+
+    /**
+     * @return the value wrapped for streaming, or the value itself if it isn't an
+     * {@code Iterator} or {@code Stream}
+     */
+    public static Object wrap(Object value) {
+        if (value instanceof Iterator) {
+            return new StreamingEntity((Iterator<?>) value, closeable(value));
+        }
+        if (BASE_STREAM != null && BASE_STREAM.isInstance(value)) {
+            return new StreamingEntity(iterator(value), (AutoCloseable) value);
+        }
+        return value;
+    }
+
+    public Iterator<?> getIterator() {
+        return iterator;
+    }
+
+    /**
+     * @return true if the items come from a source which has to be closed
+     */
+    public boolean hasSource() {
+        return source != null;
+    }
+
+    /**
+     * Closes the source of the items, such as a stream over a database cursor.  Only the first
+     * call has an effect.
+     */
+    @Override
+    public void close() throws Exception {
+        if (source != null && closed.compareAndSet(false, true)) {
+            source.close();
+        }
+    }
+
+    private static AutoCloseable closeable(Object value) {
+        return value instanceof AutoCloseable ? (AutoCloseable) value : null;
+    }
+
+    private static Iterator<?> iterator(Object stream) {
+        try {
+            return (Iterator<?>) ITERATOR.invoke(stream);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Class<?> loadBaseStream() {
+        try {
+            return Class.forName("java.util.stream.BaseStream");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method getIterator(Class<?> baseStream) {
+        if (baseStream == null) {
+            return null;
+        }
+        try {
+            return baseStream.getMethod("iterator");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
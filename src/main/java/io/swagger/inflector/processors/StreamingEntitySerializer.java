@@ -0,0 +1,159 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.processors;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.jaxrs.base.ProviderBase;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes a {@link StreamingEntity} as an array, serializing each item as it is pulled from the
+ * iterator.  JSON, YAML, Smile and CBOR are written through a {@link JsonGenerator} which is
+ * flushed every {@link #FLUSH_INTERVAL} items, so the heap used by the response doesn't grow with
+ * the number of items.  Other media types are collected into a list and handed to the registered
+ * writer.
+ */
+@Provider
+@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, "application/yaml",
+        "application/x-jackson-smile", "application/cbor"})
+public class StreamingEntitySerializer implements MessageBodyWriter<StreamingEntity> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingEntitySerializer.class);
+    static final int FLUSH_INTERVAL = 100;
+
+    @Context
+    Providers providers;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return StreamingEntity.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(StreamingEntity entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(StreamingEntity entity,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> headers,
+                        OutputStream out) throws IOException {
+        try {
+            if (mediaType.toString().startsWith("application/yaml")) {
+                headers.remove("Content-Type");
+                headers.add("Content-Type", "application/yaml");
+                write(entity.getIterator(), Yaml.mapper(), out);
+            } else {
+                ObjectMapper mapper = getMapper(annotations, mediaType);
+                if (mapper != null) {
+                    write(entity.getIterator(), mapper, out);
+                } else {
+                    writeCollected(entity.getIterator(), annotations, mediaType, headers, out);
+                }
+            }
+        } finally {
+            try {
+                entity.close();
+            } catch (Exception e) {
+                LOGGER.warn("failed to close streamed entity", e);
+            }
+        }
+    }
+
+    static void write(Iterator<?> iterator, ObjectMapper mapper, OutputStream out) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // the container owns the output stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // flushing is left to the interval below
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        generator.writeStartArray();
+        int count = 0;
+        while (iterator.hasNext()) {
+            writer.writeValue(generator, iterator.next());
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    /**
+     * Uses the mapper of the registered Jackson provider for the media type, so streamed items
+     * are serialized the same way as entities which aren't streamed.
+     *
+     * @return the mapper, or null if the media type can't be written item by item
+     */
+    private ObjectMapper getMapper(Annotation[] annotations, MediaType mediaType) {
+        if (providers != null) {
+            MessageBodyWriter<Object> writer = providers.getMessageBodyWriter(Object.class, Object.class, annotations, mediaType);
+            if (writer instanceof ProviderBase) {
+                Object mapper = ((ProviderBase<?, ?, ?, ?>) writer).locateMapper(Object.class, mediaType);
+                // xml needs a root element around the items
+                if (mapper instanceof ObjectMapper && !(mapper instanceof XmlMapper)) {
+                    return (ObjectMapper) mapper;
+                }
+            }
+        }
+        if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+            return Json.mapper();
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void writeCollected(Iterator<?> iterator, Annotation[] annotations, MediaType mediaType,
+                                MultivaluedMap<String, Object> headers, OutputStream out) throws IOException {
+        List<Object> items = new ArrayList<Object>();
+        while (iterator.hasNext()) {
+            items.add(iterator.next());
+        }
+        MessageBodyWriter writer = providers == null ? null
+                : providers.getMessageBodyWriter(ArrayList.class, ArrayList.class, annotations, mediaType);
+        if (writer == null) {
+            throw new InternalServerErrorException("no writer for a list of items as " + mediaType);
+        }
+        writer.writeTo(items, ArrayList.class, ArrayList.class, annotations, mediaType, headers, out);
+    }
+}
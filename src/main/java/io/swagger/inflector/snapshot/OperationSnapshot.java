@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.snapshot;
+
+import java.util.List;
+
+/**
+ * The resolved binding of one operation: the controller method and parameter classes found by
+ * reflection, or the serialized mock response when there is no controller.
+ */
+public class OperationSnapshot {
+    private String path;
+    private String httpMethod;
+    private List<String> parameterClasses;
+    private String controllerClass;
+    private String methodName;
+    private List<String> methodParameterTypes;
+    private Integer mockStatus;
+    private List<byte[]> mockPayloads;
+
+    public OperationSnapshot path(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public OperationSnapshot httpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+        return this;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public void setHttpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+    }
+
+    /**
+     * @return the class names of the operation's parameters, starting with the request context
+     */
+    public List<String> getParameterClasses() {
+        return parameterClasses;
+    }
+
+    public void setParameterClasses(List<String> parameterClasses) {
+        this.parameterClasses = parameterClasses;
+    }
+
+    public String getControllerClass() {
+        return controllerClass;
+    }
+
+    public void setControllerClass(String controllerClass) {
+        this.controllerClass = controllerClass;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public void setMethodName(String methodName) {
+        this.methodName = methodName;
+    }
+
+    public List<String> getMethodParameterTypes() {
+        return methodParameterTypes;
+    }
+
+    public void setMethodParameterTypes(List<String> methodParameterTypes) {
+        this.methodParameterTypes = methodParameterTypes;
+    }
+
+    /**
+     * @return the status of the mock response, or null if the operation has a controller or its
+     * mock couldn't be stored
+     */
+    public Integer getMockStatus() {
+        return mockStatus;
+    }
+
+    public void setMockStatus(Integer mockStatus) {
+        this.mockStatus = mockStatus;
+    }
+
+    /**
+     * @see io.swagger.inflector.processors.MockResponse#getPayloads()
+     */
+    public List<byte[]> getMockPayloads() {
+        return mockPayloads;
+    }
+
+    public void setMockPayloads(List<byte[]> mockPayloads) {
+        this.mockPayloads = mockPayloads;
+    }
+}
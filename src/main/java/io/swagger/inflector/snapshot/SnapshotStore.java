@@ -0,0 +1,275 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.snapshot;
+
+import io.swagger.inflector.config.Configuration;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the {@link StartupSnapshot} file configured with `startupSnapshot`.  The file is
+ * gzipped JSON, keyed by a SHA-256 hash of the spec, the configuration and the classpath, so a
+ * snapshot is only used by a boot which would resolve the same bindings.  The key is meant to be
+ * cheap: a spec served over HTTP is represented by its `ETag` or `Last-Modified` header where it
+ * has one, and each classpath jar or directory by its size and modification time, without looking
+ * inside.  Classes recompiled in place in a classpath directory don't change the key, but a binding
+ * whose controller method no longer exists is resolved again.  Any problem reading the snapshot
+ * makes {@link #read()} return null, and the inflector boots from the spec as usual.
+ */
+public class SnapshotStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotStore.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // bump when the snapshot layout or the meaning of its content changes
+    static final String FORMAT = "inflector-snapshot-1";
+
+    private final Configuration config;
+    private final File file;
+    private String key;
+
+    public SnapshotStore(Configuration config) {
+        this.config = config;
+        this.file = new File(config.getStartupSnapshot());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the hash the snapshot has to match, or null if the spec can't be read
+     */
+    public synchronized String getKey() {
+        if (key == null) {
+            try {
+                key = computeKey();
+            } catch (IOException e) {
+                LOGGER.warn("unable to hash " + config.getSwaggerUrl() + ", startup snapshots are disabled", e);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * @return the snapshot, or null if there is none or it doesn't match this spec and classpath
+     */
+    public StartupSnapshot read() {
+        if (!file.isFile()) {
+            LOGGER.info("no startup snapshot at " + file);
+            return null;
+        }
+        String expected = getKey();
+        if (expected == null) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)));
+            StartupSnapshot snapshot = Json.mapper().readValue(in, StartupSnapshot.class);
+            if (!expected.equals(snapshot.getKey()) || snapshot.getSwagger() == null) {
+                LOGGER.info("startup snapshot " + file + " is out of date");
+                return null;
+            }
+            LOGGER.info("loaded startup snapshot " + file);
+            return snapshot;
+        } catch (Exception e) {
+            LOGGER.warn("unable to read startup snapshot " + file, e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Stores the snapshot with the current key.  The file is replaced atomically where the file
+     * system supports it, so concurrently booting instances never read a partial snapshot.
+     */
+    public boolean write(StartupSnapshot snapshot) {
+        String current = getKey();
+        if (current == null) {
+            return false;
+        }
+        snapshot.setKey(current);
+        File dir = file.getAbsoluteFile().getParentFile();
+        File tmp = null;
+        OutputStream out = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("unable to create " + dir);
+            }
+            tmp = File.createTempFile(file.getName(), ".tmp", dir);
+            out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            Json.mapper().writeValue(out, snapshot);
+            out.close();
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.info("wrote startup snapshot " + file);
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("unable to write startup snapshot " + file, e);
+            IOUtils.closeQuietly(out);
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                LOGGER.debug("unable to delete " + tmp);
+            }
+            return false;
+        }
+    }
+
+    private String computeKey() throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(FORMAT.getBytes(UTF_8));
+        updateSpec(digest);
+        digest.update(Yaml.mapper().writeValueAsBytes(config));
+        for (File entry : getClasspath()) {
+            update(digest, entry);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (byte b : digest.digest()) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private void updateSpec(MessageDigest digest) throws IOException {
+        String location = config.getSwaggerUrl();
+        File spec = new File(location);
+        if (spec.isFile()) {
+            digest.update(Files.readAllBytes(spec.toPath()));
+            return;
+        }
+        InputStream in;
+        if (location.contains("://")) {
+            URL url = new URL(location);
+            String version = getVersion(url);
+            if (version != null) {
+                digest.update(location.getBytes(UTF_8));
+                digest.update(version.getBytes(UTF_8));
+                return;
+            }
+            in = url.openStream();
+        } else {
+            in = getClass().getClassLoader().getResourceAsStream(location);
+            if (in == null) {
+                throw new IOException("spec " + location + " not found");
+            }
+        }
+        try {
+            digest.update(IOUtils.toByteArray(in));
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * @return the `ETag` or `Last-Modified` header of a spec served over HTTP, or null if it has
+     * neither and the spec has to be downloaded to be hashed
+     */
+    private static String getVersion(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof HttpURLConnection)) {
+            return null;
+        }
+        HttpURLConnection http = (HttpURLConnection) connection;
+        try {
+            http.setRequestMethod("HEAD");
+            if (http.getResponseCode() / 100 != 2) {
+                return null;
+            }
+            String etag = http.getHeaderField("ETag");
+            if (etag != null) {
+                return "etag " + etag;
+            }
+            long lastModified = http.getLastModified();
+            return lastModified > 0 ? "last-modified " + lastModified : null;
+        } finally {
+            http.disconnect();
+        }
+    }
+
+    /**
+     * @return the jars and directories on the JVM and web application classpaths
+     */
+    static Set<File> getClasspath() {
+        Set<File> entries = new LinkedHashSet<File>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (entry.length() > 0) {
+                entries.add(new File(entry).getAbsoluteFile());
+            }
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = SnapshotStore.class.getClassLoader();
+        }
+        for (; loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            entries.add(new File(url.toURI()).getAbsoluteFile());
+                        } catch (Exception e) {
+                            entries.add(new File(url.getPath()).getAbsoluteFile());
+                        }
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void update(MessageDigest digest, File entry) {
+        digest.update(entry.getPath().getBytes(UTF_8));
+        if (entry.isDirectory() && entry.equals(file.getAbsoluteFile().getParentFile())) {
+            // writing the snapshot changes the modification time of the directory it's kept in
+            return;
+        }
+        digest.update(Long.toString(entry.length()).getBytes(UTF_8));
+        digest.update(Long.toString(entry.lastModified()).getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.snapshot;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.models.Swagger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a boot of the inflector resolved from the spec and the classpath: the parsed spec with its
+ * references resolved, and the binding of every operation.  Stored by {@link SnapshotStore}.
+ */
+public class StartupSnapshot {
+    private String key;
+    private Swagger swagger;
+    private List<OperationSnapshot> operations = new ArrayList<OperationSnapshot>();
+    private Map<String, OperationSnapshot> index;
+
+    /**
+     * @return the hash of the spec, configuration and classpath the snapshot was taken from
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Swagger getSwagger() {
+        return swagger;
+    }
+
+    public void setSwagger(Swagger swagger) {
+        this.swagger = swagger;
+    }
+
+    public List<OperationSnapshot> getOperations() {
+        return operations;
+    }
+
+    public synchronized void setOperations(List<OperationSnapshot> operations) {
+        this.operations = operations;
+        this.index = null;
+    }
+
+    /**
+     * @return the binding of the operation, or null if it isn't in the snapshot
+     */
+    @JsonIgnore
+    public synchronized OperationSnapshot getOperation(String path, String httpMethod) {
+        if (index == null) {
+            index = new HashMap<String, OperationSnapshot>();
+            for (OperationSnapshot operation : operations) {
+                index.put(operation.getHttpMethod() + " " + operation.getPath(), operation);
+            }
+        }
+        return index.get(httpMethod + " " + path);
+    }
+}
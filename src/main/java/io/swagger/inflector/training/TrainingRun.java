@@ -0,0 +1,299 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.training;
+
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.examples.ExampleBuilder;
+import io.swagger.inflector.examples.models.Example;
+import io.swagger.inflector.processors.ExampleSerializer;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.SerializableParameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import org.apache.commons.lang3.StringUtils;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the inflector in process and sends one request to every operation of its specs, through
+ * its controller or mock response, so that a JVM started with `-XX:ArchiveClassesAtExit` (or
+ * `-XX:DumpLoadedClassList`) records the classes a real first request loads.  Parameters are
+ * filled with their defaults, enum values or a value of their type, and bodies with an example
+ * of their schema.  Responses are written in full but their status doesn't matter.
+ * <p>
+ * Run the main method with the application's classpath and the inflector configuration.
+ */
+public class TrainingRun {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingRun.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final URI BASE_URI = URI.create("http://localhost/");
+    private static final String BOUNDARY = "inflector-training";
+
+    private final Configuration config;
+
+    public TrainingRun(Configuration config) {
+        this.config = config;
+    }
+
+    /**
+     * Usage: {@code TrainingRun [config]}, defaulting to the `config` system property or
+     * `inflector.yaml`.  Exits with 1 if the inflector can't be booted.
+     */
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            Configuration config = args.length > 0 ? Configuration.read(args[0]) : Configuration.read();
+            Map<String, Integer> responses = new TrainingRun(config).run();
+            System.out.println("training run sent " + responses.size() + " requests");
+        } catch (Exception e) {
+            LOGGER.error("training run failed", e);
+            status = 1;
+        }
+        // controller executors may hold non-daemon threads
+        System.exit(status);
+    }
+
+    /**
+     * @return the response status of each request, keyed by method and path, which includes the
+     * base path when the configuration has several specs
+     */
+    public Map<String, Integer> run() throws IOException {
+        long start = System.nanoTime();
+        SwaggerInflector inflector = new SwaggerInflector(config);
+        List<Swagger> swaggers = inflector.getSwaggers();
+        if (swaggers.size() < config.getSwaggerUrls().size()) {
+            throw new IOException("unable to read " + config.getSwaggerUrls());
+        }
+        ApplicationHandler handler = new ApplicationHandler(inflector);
+        Map<String, Integer> responses = new LinkedHashMap<String, Integer>();
+        for (Swagger swagger : swaggers) {
+            String basePath = StringUtils.isEmpty(swagger.getBasePath()) ? "" : swagger.getBasePath();
+            String prefix = swaggers.size() > 1 ? basePath : "";
+            for (Map.Entry<String, Path> path : swagger.getPaths().entrySet()) {
+                for (Map.Entry<String, Operation> entry : SwaggerInflector.getOperations(path.getValue()).entrySet()) {
+                    String key = entry.getKey() + " " + prefix + path.getKey();
+                    ContainerRequest request = createRequest(swagger, basePath + path.getKey(), entry.getKey(), entry.getValue());
+                    responses.put(key, send(handler, request));
+                }
+            }
+            for (String listing : new String[]{"/swagger.json", "/swagger.yaml"}) {
+                responses.put("GET " + prefix + listing, send(handler, newRequest(basePath + listing, "GET")));
+            }
+        }
+        LOGGER.info("training run sent " + responses.size() + " requests in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        return responses;
+    }
+
+    private int send(ApplicationHandler handler, ContainerRequest request) {
+        String target = request.getMethod() + " " + request.getRequestUri().getRawPath();
+        try {
+            ContainerResponse response = handler.apply(request, new ByteArrayOutputStream()).get();
+            LOGGER.debug(target + " returned " + response.getStatus());
+            return response.getStatus();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted during training run", e);
+        } catch (Exception e) {
+            LOGGER.debug(target + " failed", e);
+            return 500;
+        }
+    }
+
+    private ContainerRequest createRequest(Swagger swagger, String path, String method, Operation operation) throws IOException {
+        StringBuilder query = new StringBuilder();
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        List<SerializableParameter> form = new ArrayList<SerializableParameter>();
+        byte[] body = null;
+        for (Parameter parameter : operation.getParameters()) {
+            String in = parameter.getIn();
+            if (parameter instanceof BodyParameter) {
+                body = createBody(((BodyParameter) parameter).getSchema(), swagger.getDefinitions());
+            } else if (parameter instanceof SerializableParameter) {
+                SerializableParameter sp = (SerializableParameter) parameter;
+                String value = sampleValue(sp);
+                if ("path".equals(in)) {
+                    path = path.replace("{" + sp.getName() + "}", encode(value));
+                } else if ("query".equals(in)) {
+                    query.append(query.length() == 0 ? '?' : '&').append(encode(sp.getName())).append('=').append(encode(value));
+                } else if ("header".equals(in)) {
+                    headers.put(sp.getName(), value);
+                } else if ("formData".equals(in)) {
+                    form.add(sp);
+                }
+            }
+        }
+        ContainerRequest request = newRequest(path + query, method);
+        request.header(HttpHeaders.ACCEPT, first(operation.getProduces(), swagger.getProduces()));
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+        if (!form.isEmpty()) {
+            String consumes = first(operation.getConsumes(), swagger.getConsumes());
+            if (MediaType.MULTIPART_FORM_DATA_TYPE.isCompatible(MediaType.valueOf(consumes)) || hasFile(form)) {
+                request.header(HttpHeaders.CONTENT_TYPE, MediaType.MULTIPART_FORM_DATA + "; boundary=" + BOUNDARY);
+                body = createMultipart(form);
+            } else {
+                request.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
+                body = createForm(form);
+            }
+        } else if (body != null) {
+            request.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        }
+        if (body != null) {
+            request.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length));
+            request.setEntityStream(new ByteArrayInputStream(body));
+        }
+        return request;
+    }
+
+    private static ContainerRequest newRequest(String pathAndQuery, String method) {
+        String relative = pathAndQuery.startsWith("/") ? pathAndQuery.substring(1) : pathAndQuery;
+        return new ContainerRequest(BASE_URI, BASE_URI.resolve(relative), method.toUpperCase(), null, new MapPropertiesDelegate());
+    }
+
+    private static byte[] createBody(Model schema, Map<String, Model> definitions) throws IOException {
+        Property property = null;
+        if (schema instanceof RefModel) {
+            property = new RefProperty(((RefModel) schema).getSimpleRef());
+        } else if (schema instanceof ArrayModel) {
+            property = new ArrayProperty(((ArrayModel) schema).getItems());
+        }
+        Object example = property == null ? null : ExampleBuilder.fromProperty(property, definitions);
+        if (example instanceof Example) {
+            return ExampleSerializer.serialize((Example) example, MediaType.APPLICATION_JSON_TYPE, false);
+        }
+        return "{}".getBytes(UTF_8);
+    }
+
+    private static byte[] createForm(List<SerializableParameter> form) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (SerializableParameter parameter : form) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            builder.append(encode(parameter.getName())).append('=').append(encode(sampleValue(parameter)));
+        }
+        return builder.toString().getBytes(UTF_8);
+    }
+
+    private static byte[] createMultipart(List<SerializableParameter> form) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (SerializableParameter parameter : form) {
+            builder.append("--").append(BOUNDARY).append("\r\n");
+            builder.append("Content-Disposition: form-data; name=\"").append(parameter.getName()).append('"');
+            if ("file".equals(parameter.getType())) {
+                builder.append("; filename=\"training.txt\"\r\nContent-Type: text/plain");
+            }
+            builder.append("\r\n\r\n").append(sampleValue(parameter)).append("\r\n");
+        }
+        builder.append("--").append(BOUNDARY).append("--\r\n");
+        return builder.toString().getBytes(UTF_8);
+    }
+
+    private static boolean hasFile(List<SerializableParameter> form) {
+        for (SerializableParameter parameter : form) {
+            if ("file".equals(parameter.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the parameter's default or first enum value, or a value of its type
+     */
+    static String sampleValue(SerializableParameter parameter) {
+        if (parameter instanceof AbstractSerializableParameter) {
+            String defaultValue = ((AbstractSerializableParameter<?>) parameter).getDefaultValue();
+            if (defaultValue != null) {
+                return defaultValue;
+            }
+        }
+        if (parameter.getEnum() != null && !parameter.getEnum().isEmpty()) {
+            return parameter.getEnum().get(0);
+        }
+        String type = parameter.getType();
+        if ("array".equals(type)) {
+            Property items = parameter.getItems();
+            return items == null ? "inflector" : sampleValue(items.getType(), items.getFormat());
+        }
+        return sampleValue(type, parameter.getFormat());
+    }
+
+    private static String sampleValue(String type, String format) {
+        if ("integer".equals(type)) {
+            return "1";
+        }
+        if ("number".equals(type)) {
+            return "1.5";
+        }
+        if ("boolean".equals(type)) {
+            return "true";
+        }
+        if ("date".equals(format)) {
+            return "2015-01-01";
+        }
+        if ("date-time".equals(format)) {
+            return "2015-01-01T00:00:00Z";
+        }
+        return "inflector";
+    }
+
+    private static String first(List<String> types, List<String> defaults) {
+        if (types != null && !types.isEmpty()) {
+            return types.get(0);
+        }
+        if (defaults != null && !defaults.isEmpty()) {
+            return defaults.get(0);
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static String encode(String value) throws IOException {
+        return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+    }
+}
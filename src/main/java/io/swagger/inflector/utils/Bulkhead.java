@@ -0,0 +1,212 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of concurrent requests to an operation.  Permits are held in a
+ * {@link Semaphore}, which requests take with a non-blocking {@code tryAcquire}.  Requests over
+ * the limit wait in a {@link ConcurrentLinkedQueue} of waiters, bounded by an atomic count, and
+ * are rejected once it is full.  Nothing blocks while waiting: a waiter is a callback, run on an
+ * executor once a permit is handed to it, so the request can stay suspended without holding a
+ * container thread.  A released permit goes straight to the oldest waiter, and only back to the
+ * semaphore when none is left.  Each waiter starts or expires exactly once, whichever comes first.
+ */
+public class Bulkhead {
+    private static ScheduledExecutorService timer;
+
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final long queueTimeout;
+    private final Semaphore permits;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<Waiter>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * @param maxConcurrency number of requests allowed to run at once
+     * @param maxQueue       number of requests allowed to wait for a permit
+     * @param queueTimeout   milliseconds a queued request waits for a permit, 0 to wait until one is free
+     */
+    public Bulkhead(int maxConcurrency, int maxQueue, long queueTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueue = maxQueue;
+        this.queueTimeout = queueTimeout;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * @return true if a permit was acquired and must be given back with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    /**
+     * @return true if a request that can't get a permit would be rejected right away
+     */
+    public boolean isQueueFull() {
+        return queued.get() >= maxQueue;
+    }
+
+    /**
+     * Queues a request for the next free permit.
+     *
+     * @param executor   runs the callbacks
+     * @param onPermit   called holding a permit, which it must give back with {@link #release()}
+     * @param onRejected called if no permit was freed within the queue timeout
+     * @return false if the queue is full, in which case neither callback is called
+     */
+    public boolean enqueue(Executor executor, Runnable onPermit, Runnable onRejected) {
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return false;
+        }
+        Waiter waiter = new Waiter(executor, onPermit, onRejected);
+        waiters.add(waiter);
+        if (queueTimeout > 0) {
+            waiter.schedule(queueTimeout);
+        }
+        // a permit may have been released before the waiter was added
+        drain();
+        return true;
+    }
+
+    /**
+     * Gives a permit back, handing it to the longest waiting request if there is one.
+     */
+    public void release() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.start()) {
+                return;
+            }
+        }
+        permits.release();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && permits.tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null || !waiter.start()) {
+                permits.release();
+            }
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return queued.get();
+    }
+
+    private static synchronized ScheduledExecutorService timer() {
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "inflector-bulkhead-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return timer;
+    }
+
+    /**
+     * A queued request, either started with a permit or expired, whichever comes first.
+     */
+    private class Waiter implements Runnable {
+        private final Executor executor;
+        private final Runnable onPermit;
+        private final Runnable onRejected;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeout;
+
+        Waiter(Executor executor, Runnable onPermit, Runnable onRejected) {
+            this.executor = executor;
+            this.onPermit = onPermit;
+            this.onRejected = onRejected;
+        }
+
+        void schedule(long delay) {
+            timeout = timer().schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * @return true if the waiter took the permit, false if it had already expired
+         */
+        boolean start() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            queued.decrementAndGet();
+            ScheduledFuture<?> future = timeout;
+            if (future != null) {
+                future.cancel(false);
+            }
+            try {
+                executor.execute(onPermit);
+            } catch (RejectedExecutionException e) {
+                release();
+                onRejected.run();
+            }
+            return true;
+        }
+
+        /**
+         * Expires the waiter when the queue timeout elapses.
+         */
+        @Override
+        public void run() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            queued.decrementAndGet();
+            waiters.remove(this);
+            try {
+                executor.execute(onRejected);
+            } catch (RejectedExecutionException e) {
+                onRejected.run();
+            }
+        }
+    }
+}
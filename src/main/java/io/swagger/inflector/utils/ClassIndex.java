@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.inflector.utils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the class lookups and method scans done while binding operations to controllers and
+ * models.  Class names are resolved once, including names which don't exist, so a spec with many
+ * operations on the same controller or many unmapped models doesn't pay for a thrown
+ * {@link ClassNotFoundException} per lookup.  Methods are indexed by name once per class.  All
+ * lookups are thread safe, so operations can be bound in parallel.
+ */
+public class ClassIndex {
+    private static final Object NOT_FOUND = new Object();
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        for (Class<?> cls : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class,
+                float.class, double.class, void.class}) {
+            PRIMITIVES.put(cls.getName(), cls);
+        }
+    }
+
+    private final ClassLoader classLoader;
+    private final boolean initialize;
+    private final ConcurrentMap<String, Object> classes = new ConcurrentHashMap<String, Object>();
+    private final ConcurrentMap<Class<?>, Map<String, List<Method>>> methods = new ConcurrentHashMap<Class<?>, Map<String, List<Method>>>();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ClassIndex() {
+        this(ClassIndex.class.getClassLoader());
+    }
+
+    /**
+     * @param classLoader loader for controllers and models, for instance the project's classes
+     *                    when generating adapters at build time
+     */
+    public ClassIndex(ClassLoader classLoader) {
+        this(classLoader, true);
+    }
+
+    /**
+     * @param initialize false to load classes without running their static initializers, when
+     *                   they are only inspected
+     */
+    public ClassIndex(ClassLoader classLoader, boolean initialize) {
+        this.classLoader = classLoader;
+        this.initialize = initialize;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * @param name a name as returned by {@link Class#getName()}, including primitives and arrays
+     * @return the class, or null if it can't be loaded
+     */
+    public Class<?> findClass(String name) {
+        Class<?> primitive = PRIMITIVES.get(name);
+        if (primitive != null) {
+            return primitive;
+        }
+        Object cls = classes.get(name);
+        if (cls == null) {
+            try {
+                cls = Class.forName(name, initialize, classLoader);
+            } catch (ClassNotFoundException e) {
+                cls = NOT_FOUND;
+                misses.incrementAndGet();
+            } catch (LinkageError e) {
+                cls = NOT_FOUND;
+                misses.incrementAndGet();
+            }
+            Object existing = classes.putIfAbsent(name, cls);
+            if (existing != null) {
+                cls = existing;
+            }
+        }
+        return cls == NOT_FOUND ? null : (Class<?>) cls;
+    }
+
+    /**
+     * @return the public methods of the class with the name, in {@link Class#getMethods()} order
+     */
+    public List<Method> getMethods(Class<?> cls, String name) {
+        Map<String, List<Method>> index = methods.get(cls);
+        if (index == null) {
+            index = index(cls);
+            Map<String, List<Method>> existing = methods.putIfAbsent(cls, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        List<Method> matches = index.get(name);
+        if (matches == null) {
+            return Collections.emptyList();
+        }
+        return matches;
+    }
+
+    /**
+     * @return the number of names looked up with the class loader without finding a class.  Later
+     * lookups of the same names are answered from the index and not counted.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static Map<String, List<Method>> index(Class<?> cls) {
+        Map<String, List<Method>> index = new HashMap<String, List<Method>>();
+        for (Method method : cls.getMethods()) {
+            List<Method> named = index.get(method.getName());
+            if (named == null) {
+                named = new ArrayList<Method>(1);
+                index.put(method.getName(), named);
+            }
+            named.add(method);
+        }
+        for (Map.Entry<String, List<Method>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return index;
+    }
+}
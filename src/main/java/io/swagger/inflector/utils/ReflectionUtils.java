@@ -18,6 +18,7 @@ package io.swagger.inflector.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.invocation.OperationBinding;
 import io.swagger.inflector.models.RequestContext;
 import io.swagger.models.ArrayModel;
 import io.swagger.models.Model;
@@ -41,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import javax.validation.constraints.Null;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -52,11 +54,23 @@ public class ReflectionUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(ReflectionUtils.class);
 
     protected Configuration config;
+    protected ClassIndex classIndex = new ClassIndex();
 
     public void setConfiguration(Configuration config) {
         this.config = config;
     }
 
+    /**
+     * @param classIndex cache for class and method lookups, which can be shared between instances
+     */
+    public void setClassIndex(ClassIndex classIndex) {
+        this.classIndex = classIndex;
+    }
+
+    public ClassIndex getClassIndex() {
+        return classIndex;
+    }
+
     public Class<?>[] getOperationParameterClasses(Operation operation, Map<String, Model> definitions) {
         Class<?>[] classes = new Class<?>[operation.getParameters().size() + 1];
         int i = 0;
@@ -136,18 +150,15 @@ public class ReflectionUtils {
             return output;
         }
         // try to look up by name
-        try {
-            return Class.forName(name);
-        } catch (ClassNotFoundException e) {
-            // continue
+        output = classIndex.findClass(name);
+        if (output != null) {
+            return output;
         }
         // try with config prefix
         if (config.getModelPackage() != null && name.indexOf(".") == -1) {
-            String fqModel = config.getModelPackage() + "." + name;
-            try {
-                return Class.forName(fqModel);
-            } catch (ClassNotFoundException e) {
-                // continue
+            output = classIndex.findClass(config.getModelPackage() + "." + name);
+            if (output != null) {
+                return output;
             }
         }
         LOGGER.debug("model `" + name + "` not found in classloader");
@@ -205,6 +216,48 @@ public class ReflectionUtils {
         return null;
     }
 
+    /**
+     * Finds the controller class and method an operation is bound to, without creating the
+     * controller.
+     *
+     * @param args the operation's parameter classes, from {@link #getOperationParameterClasses}
+     * @return the binding, or null if there is no controller class or no matching method
+     */
+    public OperationBinding findOperationBinding(String path, String httpMethod, Operation operation, Class<?>[] args) {
+        String controller = getControllerName(operation);
+        String methodName = getMethodName(path, httpMethod, operation);
+        if (controller == null || methodName == null) {
+            return null;
+        }
+        Class<?> cls = classIndex.findClass(controller);
+        if (cls == null) {
+            controller = controller + "Controller";
+            cls = classIndex.findClass(controller);
+        }
+        if (cls == null) {
+            LOGGER.debug("didn't find class " + controller);
+            return null;
+        }
+
+        for (Method method : classIndex.getMethods(cls, methodName)) {
+            Class<?>[] methodArgs = method.getParameterTypes();
+            if (methodArgs.length == args.length) {
+                int i = 0;
+                boolean matched = true;
+                if (!args[i].equals(methodArgs[i])) {
+                    LOGGER.debug("failed to match " + args[i] + ", " + methodArgs[i]);
+                    matched = false;
+                }
+                if (matched) {
+                    return new OperationBinding(cls, method);
+                }
+            }
+        }
+
+        LOGGER.debug("no match in " + controller);
+        return null;
+    }
+
     public Object cast(List<String> o, Parameter parameter, Class<?> cls, Map<String, Model> definitions) {
         if (o == null || o.size() == 0) {
             return null;
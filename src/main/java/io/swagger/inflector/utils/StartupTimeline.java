@@ -0,0 +1,277 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.inflector.utils;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records how long each phase of the inflector's startup and the binding of each operation take,
+ * with the bytes they allocate, the classes the JVM loads meanwhile and the class lookups which
+ * miss.  Allocations are counted on the recording thread, so phases which hand work to other
+ * threads add it with {@link Span#addAllocatedBytes}.  Loaded classes are counted for the whole
+ * JVM, so the counts of operations bound in parallel overlap.
+ */
+public class StartupTimeline {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimeline.class);
+    private static final int SLOWEST_OPERATIONS = 10;
+
+    private final ClassIndex classIndex;
+    private final long start = System.nanoTime();
+    private final long startClasses = loadedClasses();
+    private final long startMisses;
+    private final List<Entry> phases = Collections.synchronizedList(new ArrayList<Entry>());
+    private final List<Entry> operations = Collections.synchronizedList(new ArrayList<Entry>());
+    private volatile long end;
+    private volatile long endClasses;
+    private volatile long endMisses;
+
+    /**
+     * @param classIndex the index whose misses are counted
+     */
+    public StartupTimeline(ClassIndex classIndex) {
+        this.classIndex = classIndex;
+        this.startMisses = classIndex.getMisses();
+    }
+
+    public Span phase(String name) {
+        return new Span(name, phases);
+    }
+
+    public Span operation(String method, String path) {
+        return new Span(method + " " + path, operations);
+    }
+
+    /**
+     * Ends the timeline, freezing its totals.
+     */
+    public void finish() {
+        endClasses = loadedClasses();
+        endMisses = classIndex.getMisses();
+        end = System.nanoTime();
+    }
+
+    public double getTotalMillis() {
+        return millis((end == 0 ? System.nanoTime() : end) - start);
+    }
+
+    public long getLoadedClasses() {
+        return (end == 0 ? loadedClasses() : endClasses) - startClasses;
+    }
+
+    public long getClassLookupMisses() {
+        return (end == 0 ? classIndex.getMisses() : endMisses) - startMisses;
+    }
+
+    public List<Entry> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<Entry>(phases);
+        }
+    }
+
+    public List<Entry> getOperations() {
+        synchronized (operations) {
+            return new ArrayList<Entry>(operations);
+        }
+    }
+
+    /**
+     * @return the phases, and the slowest operations, one per line
+     */
+    @JsonIgnore
+    public String getSummary() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.ROOT, "startup took %.1fms, loaded %d classes, missed %d class lookups",
+                getTotalMillis(), getLoadedClasses(), getClassLookupMisses()));
+        for (Entry phase : getPhases()) {
+            append(builder, phase);
+        }
+        List<Entry> slowest = getOperations();
+        if (!slowest.isEmpty()) {
+            Collections.sort(slowest, new Comparator<Entry>() {
+                @Override
+                public int compare(Entry a, Entry b) {
+                    return Long.compare(b.durationNanos, a.durationNanos);
+                }
+            });
+            builder.append("\n  slowest of ").append(slowest.size()).append(" operations:");
+            for (Entry operation : slowest.subList(0, Math.min(SLOWEST_OPERATIONS, slowest.size()))) {
+                append(builder, operation);
+            }
+        }
+        return builder.toString();
+    }
+
+    public void log() {
+        LOGGER.info(getSummary());
+    }
+
+    private static void append(StringBuilder builder, Entry entry) {
+        builder.append(String.format(Locale.ROOT, "\n  %-40s %9.1fms %10dKB %6d classes %4d misses",
+                entry.name, entry.getDurationMillis(), entry.allocatedBytes / 1024, entry.loadedClasses, entry.classLookupMisses));
+        if (entry.detail != null) {
+            builder.append("  ").append(entry.detail);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static long loadedClasses() {
+        ClassLoadingMXBean bean = ManagementFactory.getClassLoadingMXBean();
+        return bean.getTotalLoadedClassCount();
+    }
+
+    /**
+     * A phase or operation being measured.
+     */
+    public class Span {
+        private final String name;
+        private final List<Entry> entries;
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = Allocations.currentThread();
+        private final long startClasses = loadedClasses();
+        private final long startMisses = classIndex.getMisses();
+        private long otherThreadBytes;
+
+        Span(String name, List<Entry> entries) {
+            this.name = name;
+            this.entries = entries;
+        }
+
+        /**
+         * Adds bytes allocated on other threads for this span.
+         */
+        public void addAllocatedBytes(long bytes) {
+            otherThreadBytes += bytes;
+        }
+
+        public Entry end() {
+            return end(null);
+        }
+
+        /**
+         * @param detail what the span resulted in, for instance the method an operation was bound to
+         */
+        public Entry end(String detail) {
+            long now = System.nanoTime();
+            Entry entry = new Entry(name, detail, millis(startNanos - start), now - startNanos,
+                    Allocations.currentThread() - startBytes + otherThreadBytes, loadedClasses() - startClasses,
+                    classIndex.getMisses() - startMisses);
+            entries.add(entry);
+            return entry;
+        }
+    }
+
+    public static class Entry {
+        private final String name;
+        private final String detail;
+        private final double startMillis;
+        private final long durationNanos;
+        private final long allocatedBytes;
+        private final long loadedClasses;
+        private final long classLookupMisses;
+
+        Entry(String name, String detail, double startMillis, long durationNanos, long allocatedBytes, long loadedClasses,
+              long classLookupMisses) {
+            this.name = name;
+            this.detail = detail;
+            this.startMillis = startMillis;
+            this.durationNanos = durationNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.loadedClasses = loadedClasses;
+            this.classLookupMisses = classLookupMisses;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        /**
+         * @return when the span started, relative to the start of the timeline
+         */
+        public double getStartMillis() {
+            return startMillis;
+        }
+
+        public double getDurationMillis() {
+            return millis(durationNanos);
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getLoadedClasses() {
+            return loadedClasses;
+        }
+
+        public long getClassLookupMisses() {
+            return classLookupMisses;
+        }
+    }
+
+    /**
+     * Reads per-thread allocations from the HotSpot extension of {@link ThreadMXBean}, when the
+     * JVM has it.
+     */
+    static class Allocations {
+        private static final com.sun.management.ThreadMXBean BEAN = create();
+
+        /**
+         * @return the bytes allocated by the current thread so far, or 0 if the JVM doesn't count them
+         */
+        static long currentThread() {
+            if (BEAN == null) {
+                return 0;
+            }
+            return BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        private static com.sun.management.ThreadMXBean create() {
+            try {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                    ((com.sun.management.ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+                    return (com.sun.management.ThreadMXBean) bean;
+                }
+            } catch (LinkageError e) {
+                LOGGER.debug("per-thread allocations are not available", e);
+            } catch (UnsupportedOperationException e) {
+                LOGGER.debug("per-thread allocations are not available", e);
+            }
+            return null;
+        }
+    }
+}
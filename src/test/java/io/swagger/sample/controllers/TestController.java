@@ -16,14 +16,38 @@
 
 package io.swagger.sample.controllers;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.inflector.models.RequestContext;
 import io.swagger.inflector.models.ResponseContext;
 import io.swagger.test.models.User;
+import io.swagger.util.Json;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.Status;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 public class TestController {
+    /**
+     * counted down by {@link #blocking(RequestContext)} when a request enters it
+     */
+    public static volatile CountDownLatch blockingEntered = new CountDownLatch(1);
+    /**
+     * holds requests in {@link #blocking(RequestContext)} until it is counted down
+     */
+    public static volatile CountDownLatch blockingReleased = new CountDownLatch(0);
+    /**
+     * number of iterators returned by {@link #streamUsers(RequestContext, Integer)} which were closed
+     */
+    public static final AtomicInteger closedStreams = new AtomicInteger();
+
     public ResponseContext postFormData(RequestContext request, Long id, String name) {
         // just showing a sample response
 
@@ -34,4 +58,84 @@ public class TestController {
                         .id(id)
                         .user(name));
     }
+
+    public CompletionStage<ResponseContext> asyncHello(RequestContext request, final String name) {
+        return CompletableFuture.supplyAsync(new Supplier<ResponseContext>() {
+            @Override
+            public ResponseContext get() {
+                return new ResponseContext()
+                        .status(Status.OK)
+                        .contentType(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(new User()
+                                .id(1L)
+                                .user(name));
+            }
+        });
+    }
+
+    public ResponseContext currentThread(RequestContext request) {
+        return new ResponseContext()
+                .status(Status.OK)
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .entity(new User()
+                        .user(Thread.currentThread().getName()));
+    }
+
+    public ResponseContext uploadFile(RequestContext request, String name, Path file) throws IOException {
+        return new ResponseContext()
+                .status(Status.OK)
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .entity(new User()
+                        .id(Files.size(file))
+                        .user(name));
+    }
+
+    public Iterator<User> streamUsers(RequestContext request, final Integer count) {
+        return new UserIterator(count);
+    }
+
+    public ObjectNode userNode(RequestContext request) {
+        ObjectNode node = Json.mapper().createObjectNode();
+        node.put("id", 1);
+        node.put("user", "fehguy");
+        return node;
+    }
+
+    public ResponseContext blocking(RequestContext request) throws InterruptedException {
+        blockingEntered.countDown();
+        blockingReleased.await();
+        return new ResponseContext()
+                .status(Status.OK)
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .entity("done");
+    }
+
+    static class UserIterator implements Iterator<User>, AutoCloseable {
+        private final long count;
+        private long next = 0;
+
+        UserIterator(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public User next() {
+            return new User().id(next++).user("user" + next);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            closedStreams.incrementAndGet();
+        }
+    }
 }
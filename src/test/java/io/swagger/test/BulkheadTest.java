@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test;
+
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.utils.Bulkhead;
+import io.swagger.sample.controllers.TestController;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class BulkheadTest {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void testRejectWithoutQueue() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 0, 0);
+        Counter counter = new Counter();
+
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertTrue(bulkhead.isQueueFull());
+        assertFalse(bulkhead.enqueue(DIRECT, counter.permit(), counter.rejected()));
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+        assertEquals(counter.permits.get(), 0);
+        assertEquals(counter.rejections.get(), 0);
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, 50);
+        Counter counter = new Counter();
+
+        assertTrue(bulkhead.tryAcquire());
+        long start = System.currentTimeMillis();
+        assertTrue(bulkhead.enqueue(DIRECT, counter.permit(), counter.rejected()));
+        assertEquals(bulkhead.getQueueLength(), 1);
+        assertTrue(counter.done.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 50);
+        assertEquals(counter.rejections.get(), 1);
+        assertEquals(bulkhead.getQueueLength(), 0);
+
+        // the expired request doesn't take the permit
+        bulkhead.release();
+        assertEquals(counter.permits.get(), 0);
+        assertEquals(bulkhead.getAvailablePermits(), 1);
+    }
+
+    @Test
+    public void testQueuedRequestGetsReleasedPermit() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, 0);
+        Counter queued = new Counter();
+        Counter rejected = new Counter();
+
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.enqueue(DIRECT, queued.permit(), queued.rejected()));
+        assertEquals(queued.permits.get(), 0);
+
+        // the queue is full, so a third request is rejected right away
+        assertTrue(bulkhead.isQueueFull());
+        assertFalse(bulkhead.enqueue(DIRECT, rejected.permit(), rejected.rejected()));
+
+        // the permit is handed to the queued request, not given back to the pool
+        bulkhead.release();
+        assertEquals(queued.permits.get(), 1);
+        assertEquals(bulkhead.getAvailablePermits(), 0);
+        assertEquals(bulkhead.getQueueLength(), 0);
+        assertFalse(bulkhead.tryAcquire());
+
+        bulkhead.release();
+        assertEquals(bulkhead.getAvailablePermits(), 1);
+        assertEquals(rejected.permits.get() + rejected.rejections.get(), 0);
+    }
+
+    @Test
+    public void testQueuedRequestDoesNotHoldThread() throws Exception {
+        Configuration config = new Configuration()
+                .controllerPackage("io.swagger.sample.controllers")
+                .swaggerUrl("./src/test/swagger/bulkhead.yaml");
+        config.setBulkheadQueueTimeout(0);
+        final ApplicationHandler handler = new ApplicationHandler(new SwaggerInflector(config));
+        TestController.blockingEntered = new CountDownLatch(1);
+        TestController.blockingReleased = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ContainerResponse> running = executor.submit(new Callable<ContainerResponse>() {
+                @Override
+                public ContainerResponse call() throws Exception {
+                    return apply(handler).get();
+                }
+            });
+            assertTrue(TestController.blockingEntered.await(5, TimeUnit.SECONDS));
+
+            // queued without blocking the calling thread
+            Future<ContainerResponse> queued = apply(handler);
+            assertFalse(queued.isDone());
+
+            Future<ContainerResponse> rejected = apply(handler);
+            assertTrue(rejected.isDone());
+            assertEquals(rejected.get().getStatus(), 503);
+
+            TestController.blockingReleased.countDown();
+            assertEquals(running.get(5, TimeUnit.SECONDS).getStatus(), 200);
+            assertEquals(queued.get(5, TimeUnit.SECONDS).getStatus(), 200);
+        } finally {
+            TestController.blockingReleased.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static Future<ContainerResponse> apply(ApplicationHandler handler) {
+        ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve("api/blocking"), "GET", null,
+                new MapPropertiesDelegate());
+        return handler.apply(request, new ByteArrayOutputStream());
+    }
+
+    static class Counter {
+        final AtomicInteger permits = new AtomicInteger();
+        final AtomicInteger rejections = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        Runnable permit() {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    permits.incrementAndGet();
+                    done.countDown();
+                }
+            };
+        }
+
+        Runnable rejected() {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    rejections.incrementAndGet();
+                    done.countDown();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test;
+
+import io.swagger.inflector.invocation.CompletionStages;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CompletionStagesTest {
+    @Test
+    public void testIsCompletionStage() throws Exception {
+        assertTrue(CompletionStages.isCompletionStage(CompletionStage.class));
+        assertTrue(CompletionStages.isCompletionStage(CompletableFuture.class));
+        assertFalse(CompletionStages.isCompletionStage(Object.class));
+        assertFalse(CompletionStages.isCompletionStage(null));
+    }
+
+    @Test
+    public void testSuccess() throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<Object>();
+        Recorder recorder = new Recorder();
+        CompletionStages.whenComplete(future, recorder);
+        assertTrue(recorder.events.isEmpty());
+
+        future.complete("done");
+        assertEquals(recorder.events, Arrays.<Object>asList("done"));
+    }
+
+    @Test
+    public void testUnwrapCompletionException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("failed");
+        CompletableFuture<Object> future = new CompletableFuture<Object>();
+        future.completeExceptionally(failure);
+        // a dependent stage reports the failure wrapped in a CompletionException
+        CompletionStage<Object> stage = future.thenApply(new Function<Object, Object>() {
+            @Override
+            public Object apply(Object value) {
+                return value;
+            }
+        });
+        Recorder recorder = new Recorder();
+        CompletionStages.whenComplete(stage, recorder);
+
+        assertEquals(recorder.events.size(), 1);
+        assertTrue(recorder.events.get(0) == failure);
+    }
+
+    static class Recorder implements CompletionStages.Callback {
+        final List<Object> events = new ArrayList<Object>();
+
+        @Override
+        public void onSuccess(Object value) {
+            events.add(value);
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            events.add(throwable);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test;
+
+import io.swagger.inflector.invocation.ControllerInvoker;
+import io.swagger.inflector.invocation.ControllerInvokers;
+import io.swagger.inflector.invocation.MethodHandleInvoker;
+import io.swagger.inflector.invocation.ReflectionInvoker;
+import io.swagger.inflector.models.RequestContext;
+import io.swagger.inflector.models.ResponseContext;
+import io.swagger.sample.controllers.TestController;
+import io.swagger.test.models.User;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+public class ControllerInvokerTest {
+    @Test
+    public void testMethodHandleInvocation() throws Exception {
+        Method method = TestController.class.getMethod("postFormData", RequestContext.class, Long.class, String.class);
+        ControllerInvoker invoker = ControllerInvokers.create(method, new TestController());
+
+        assertEquals(invoker.getMode(), MethodHandleInvoker.MODE);
+        ResponseContext response = (ResponseContext) invoker.invoke(new Object[]{new RequestContext(), 42L, "fehguy"});
+        assertEquals(((User) response.getEntity()).getUser(), "fehguy");
+    }
+
+    @Test
+    public void testReflectionInvocation() throws Exception {
+        Method method = TestController.class.getMethod("postFormData", RequestContext.class, Long.class, String.class);
+        ControllerInvoker invoker = new ReflectionInvoker(method, new TestController());
+
+        ResponseContext response = (ResponseContext) invoker.invoke(new Object[]{new RequestContext(), 42L, "fehguy"});
+        assertEquals(((User) response.getEntity()).getId(), Long.valueOf(42L));
+    }
+
+    @Test
+    public void testControllerExceptionIsUnwrapped() throws Exception {
+        Method method = FailingController.class.getMethod("fail", RequestContext.class);
+        for (ControllerInvoker invoker : new ControllerInvoker[]{
+                ControllerInvokers.create(method, new FailingController()),
+                new ReflectionInvoker(method, new FailingController())}) {
+            try {
+                invoker.invoke(new Object[]{new RequestContext()});
+                fail("expected exception from " + invoker.getMode());
+            } catch (UnsupportedOperationException e) {
+                assertEquals(e.getMessage(), "nope");
+            }
+        }
+    }
+
+    public static class FailingController {
+        public Object fail(RequestContext request) {
+            throw new UnsupportedOperationException("nope");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test;
+
+import io.swagger.inflector.LazyBindingWarmup;
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.SwaggerOperationController;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class LazyBindingTest {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    private final Configuration config = new Configuration()
+            .controllerPackage("io.swagger.sample.controllers")
+            .swaggerUrl("./src/test/swagger/sample1.yaml");
+    private final Swagger swagger = new SwaggerParser().read(config.getSwaggerUrl());
+
+    public LazyBindingTest() {
+        config.setLazyBinding(true);
+    }
+
+    @Test
+    public void testBindOnFirstUse() throws Exception {
+        SwaggerOperationController controller = createController("/stream");
+        assertFalse(controller.isBound());
+        assertFalse(controller.isSuspended());
+
+        assertEquals(controller.getMethod().getName(), "streamUsers");
+        assertTrue(controller.isBound());
+        assertFalse(controller.isAsync());
+    }
+
+    @Test
+    public void testConcurrentBind() throws Exception {
+        final SwaggerOperationController controller = createController("/async");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (int i = 0; i < 32; i++) {
+                tasks.add(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return controller.getController();
+                    }
+                });
+            }
+            Object first = null;
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                if (first == null) {
+                    first = future.get();
+                }
+                assertSame(future.get(), first);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(controller.isAsync());
+    }
+
+    @Test
+    public void testWarmup() throws Exception {
+        SwaggerOperationController stream = createController("/stream");
+        SwaggerOperationController threads = createController("/threads");
+        SwaggerOperationController mocked = createController("/withModel/{id}");
+        stream.bind();
+
+        LazyBindingWarmup warmup = new LazyBindingWarmup(Arrays.asList(stream, threads, mocked), null);
+        assertEquals(warmup.warmUp(), 2);
+        assertTrue(threads.isBound());
+        assertTrue(mocked.isBound());
+        assertNull(mocked.getMethod());
+        assertEquals(warmup.warmUp(), 0);
+    }
+
+    @Test
+    public void testServeUnsuspended() throws Exception {
+        SwaggerInflector inflector = new SwaggerInflector(config);
+        ApplicationHandler handler = new ApplicationHandler(inflector);
+
+        ByteArrayOutputStream async = new ByteArrayOutputStream();
+        assertEquals(get(handler, "/api/async?name=lazy", async).getStatus(), 200);
+        assertTrue(async.toString("UTF-8").contains("\"lazy\""));
+        assertTrue(inflector.getControllers().get("GET /api/async").isAsync());
+
+        assertEquals(get(handler, "/api/threads", new ByteArrayOutputStream()).getStatus(), 200);
+        assertEquals(get(handler, "/api/withModel/1", new ByteArrayOutputStream()).getStatus(), 200);
+        for (SwaggerOperationController controller : inflector.getControllers().values()) {
+            assertFalse(controller.isSuspended());
+        }
+    }
+
+    private static ContainerResponse get(ApplicationHandler handler, String path, ByteArrayOutputStream out) throws Exception {
+        ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path.substring(1)), "GET", null,
+                new MapPropertiesDelegate());
+        return handler.apply(request, out).get();
+    }
+
+    private SwaggerOperationController createController(String path) {
+        return new SwaggerOperationController(config, path, "GET", swagger.getPath(path).getGet(), swagger.getDefinitions());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test;
+
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.SwaggerOperationController;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.config.SpecEntry;
+import io.swagger.test.models.User;
+import io.swagger.util.Yaml;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class MultipleSpecsTest {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    @Test
+    public void testSpecConfigurations() throws Exception {
+        Configuration config = Yaml.mapper().readValue("controllerPackage: io.swagger.sample.controllers\n"
+                + "invalidRequestStatusCode: 422\n"
+                + "startupSnapshot: target/startup.snapshot\n"
+                + "specs:\n"
+                + "  - swaggerUrl: one.yaml\n"
+                + "    basePath: /one\n"
+                + "  - swaggerUrl: two.yaml\n"
+                + "    controllerPackage: io.swagger.test.controllers\n"
+                + "    modelMappings:\n"
+                + "      User: io.swagger.test.models.User\n", Configuration.class);
+        List<Configuration> specs = config.getSpecConfigurations();
+        assertEquals(specs.size(), 2);
+
+        assertEquals(specs.get(0).getSwaggerUrl(), "one.yaml");
+        assertEquals(specs.get(0).getBasePath(), "/one");
+        assertEquals(specs.get(0).getControllerPackage(), "io.swagger.sample.controllers");
+        assertEquals(specs.get(0).getInvalidRequestStatusCode(), 422);
+        assertNull(specs.get(0).getModelMapping("User"));
+        assertEquals(specs.get(0).getStartupSnapshot(), "target/startup.snapshot.0");
+
+        assertEquals(specs.get(1).getSwaggerUrl(), "two.yaml");
+        assertNull(specs.get(1).getBasePath());
+        assertEquals(specs.get(1).getControllerPackage(), "io.swagger.test.controllers");
+        assertEquals(specs.get(1).getModelMapping("User"), User.class);
+        assertEquals(specs.get(1).getStartupSnapshot(), "target/startup.snapshot.1");
+    }
+
+    @Test
+    public void testServeSpecs() throws Exception {
+        Configuration config = new Configuration()
+                .controllerPackage("io.swagger.sample.controllers")
+                .spec(new SpecEntry().swaggerUrl("./src/test/swagger/sample1.yaml").basePath("/one"))
+                .spec(new SpecEntry().swaggerUrl("./src/test/swagger/sample1.yaml").basePath("/two")
+                        .controllerPackage("io.swagger.missing"));
+        SwaggerInflector inflector = new SwaggerInflector(config);
+        assertEquals(inflector.getSwaggers().size(), 2);
+        assertEquals(inflector.getSwaggers().get(0).getBasePath(), "/one");
+        assertEquals(inflector.getSwaggers().get(1).getBasePath(), "/two");
+
+        SwaggerOperationController one = inflector.getControllers().get("GET /one/threads");
+        SwaggerOperationController two = inflector.getControllers().get("GET /two/threads");
+        assertNotNull(one.getMethod());
+        // no controllers in the second spec's package
+        assertNull(two.getMethod());
+        assertSame(one.getClassIndex(), two.getClassIndex());
+
+        ApplicationHandler handler = new ApplicationHandler(inflector);
+        assertEquals(get(handler, "/one/threads").getStatus(), 200);
+        assertEquals(get(handler, "/two/threads").getStatus(), 200);
+        ByteArrayOutputStream listing = new ByteArrayOutputStream();
+        assertEquals(get(handler, "/two/swagger.json", listing).getStatus(), 200);
+        assertTrue(listing.toString("UTF-8").contains("\"basePath\":\"/two\""));
+        assertEquals(get(handler, "/api/threads").getStatus(), 404);
+    }
+
+    private static ContainerResponse get(ApplicationHandler handler, String path) throws Exception {
+        return get(handler, path, new ByteArrayOutputStream());
+    }
+
+    private static ContainerResponse get(ApplicationHandler handler, String path, ByteArrayOutputStream out) throws Exception {
+        ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path.substring(1)), "GET", null,
+                new MapPropertiesDelegate());
+        return handler.apply(request, out).get();
+    }
+}
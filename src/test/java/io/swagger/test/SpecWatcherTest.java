@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test;
+
+import io.swagger.inflector.SpecWatcher;
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.SwaggerOperationController;
+import io.swagger.inflector.config.Configuration;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.internal.ConfigHelper;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class SpecWatcherTest {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private File dir;
+    private File spec;
+    private File config;
+
+    @BeforeMethod
+    public void createFiles() throws IOException {
+        dir = Files.createTempDirectory("spec-watcher").toFile();
+        spec = new File(dir, "swagger.yaml");
+        config = new File(dir, "inflector.yaml");
+        write(spec, spec("/first", "/second"));
+        write(config, "controllerPackage: io.swagger.sample.controllers\n"
+                + "swaggerUrl: " + spec.getAbsolutePath() + "\n"
+                + "specReloadInterval: 3600000\n");
+    }
+
+    @AfterMethod
+    public void deleteFiles() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testReloadChangedOperations() throws Exception {
+        TestContainer container = new TestContainer(new SwaggerInflector(Configuration.read(config.getPath())));
+        SpecWatcher watcher = container.inflector.getSpecWatcher();
+        assertNotNull(watcher);
+        SwaggerOperationController first = container.inflector.getControllers().get("GET /api/first");
+        assertEquals(container.get("/api/second"), 200);
+        assertEquals(container.get("/api/third"), 404);
+
+        write(spec, spec("/first", "/third"));
+        assertTrue(watcher.check());
+
+        SwaggerInflector reloaded = watcher.getInflector();
+        assertNotSame(reloaded, container.inflector);
+        assertSame(reloaded.getControllers().get("GET /api/first"), first);
+        assertEquals(container.get("/api/first"), 200);
+        assertEquals(container.get("/api/second"), 404);
+        assertEquals(container.get("/api/third"), 200);
+        assertFalse(watcher.check());
+    }
+
+    @Test
+    public void testReloadConfiguration() throws Exception {
+        TestContainer container = new TestContainer(new SwaggerInflector(Configuration.read(config.getPath())));
+        SpecWatcher watcher = container.inflector.getSpecWatcher();
+        SwaggerOperationController first = container.inflector.getControllers().get("GET /api/first");
+
+        write(config, "controllerPackage: io.swagger.sample.controllers\n"
+                + "swaggerUrl: " + spec.getAbsolutePath() + "\n"
+                + "specReloadInterval: 3600000\n"
+                + "invalidRequestStatusCode: 422\n");
+        assertTrue(watcher.check());
+
+        SwaggerInflector reloaded = watcher.getInflector();
+        assertEquals(reloaded.getInflectorConfiguration().getInvalidRequestStatusCode(), 422);
+        // bound with the previous configuration
+        assertNotSame(reloaded.getControllers().get("GET /api/first"), first);
+        assertEquals(container.get("/api/first"), 200);
+    }
+
+    @Test
+    public void testKeepServingInvalidSpec() throws Exception {
+        TestContainer container = new TestContainer(new SwaggerInflector(Configuration.read(config.getPath())));
+        SpecWatcher watcher = container.inflector.getSpecWatcher();
+
+        write(spec, "swagger: [");
+        assertFalse(watcher.check());
+
+        assertSame(watcher.getInflector(), container.inflector);
+        assertEquals(container.get("/api/first"), 200);
+    }
+
+    @Test
+    public void testIgnoreUnchangedContent() throws Exception {
+        TestContainer container = new TestContainer(new SwaggerInflector(Configuration.read(config.getPath())));
+        SpecWatcher watcher = container.inflector.getSpecWatcher();
+
+        assertTrue(spec.setLastModified(spec.lastModified() + 5000));
+        assertFalse(watcher.check());
+        assertSame(watcher.getInflector(), container.inflector);
+    }
+
+    private static String spec(String... paths) {
+        StringBuilder builder = new StringBuilder("swagger: '2.0'\n"
+                + "info:\n"
+                + "  version: 0.0.0\n"
+                + "  title: reload\n"
+                + "basePath: /api\n"
+                + "paths:\n");
+        for (String path : paths) {
+            builder.append("  ").append(path).append(":\n")
+                    .append("    get:\n")
+                    .append("      produces:\n")
+                    .append("        - application/json\n")
+                    .append("      responses:\n")
+                    .append("        '200':\n")
+                    .append("          description: ok\n")
+                    .append("          schema:\n")
+                    .append("            type: string\n");
+        }
+        return builder.toString();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        long lastModified = file.lastModified();
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        // make sure the change is seen on file systems with coarse timestamps
+        file.setLastModified(Math.max(lastModified + 1000, file.lastModified()));
+    }
+
+    /**
+     * Swaps applications the way the servlet container does.
+     */
+    static class TestContainer implements Container {
+        private final SwaggerInflector inflector;
+        private ApplicationHandler handler;
+        private ContainerLifecycleListener listener;
+
+        TestContainer(SwaggerInflector inflector) {
+            this.inflector = inflector;
+            this.handler = new ApplicationHandler(inflector);
+            this.listener = ConfigHelper.getContainerLifecycleListener(handler);
+            listener.onStartup(this);
+        }
+
+        int get(String path) throws Exception {
+            ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path.substring(1)), "GET", null,
+                    new MapPropertiesDelegate());
+            return handler.apply(request, new ByteArrayOutputStream()).get().getStatus();
+        }
+
+        @Override
+        public ResourceConfig getConfiguration() {
+            return handler.getConfiguration();
+        }
+
+        @Override
+        public void reload() {
+            reload(getConfiguration());
+        }
+
+        @Override
+        public void reload(ResourceConfig configuration) {
+            listener.onShutdown(this);
+            handler = new ApplicationHandler(configuration);
+            listener = ConfigHelper.getContainerLifecycleListener(handler);
+            listener.onReload(this);
+            listener.onStartup(this);
+        }
+    }
+}
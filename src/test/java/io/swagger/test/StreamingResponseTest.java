@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.sample.controllers.TestController;
+import io.swagger.util.Json;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.message.internal.MessageBodyProviderNotFoundException;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class StreamingResponseTest {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    private final ApplicationHandler handler = new ApplicationHandler(new SwaggerInflector(new Configuration()
+            .controllerPackage("io.swagger.sample.controllers")
+            .swaggerUrl("./src/test/swagger/streaming.yaml")));
+
+    @Test
+    public void testStreamIterator() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int closed = TestController.closedStreams.get();
+        assertEquals(get("/api/stream?count=3", "application/json", out).getStatus(), 200);
+
+        JsonNode node = Json.mapper().readTree(out.toByteArray());
+        assertTrue(node.isArray());
+        assertEquals(node.size(), 3);
+        assertEquals(TestController.closedStreams.get(), closed + 1);
+    }
+
+    @Test
+    public void testCloseUnwrittenStream() throws Exception {
+        int closed = TestController.closedStreams.get();
+        try {
+            get("/api/stream?count=3", "text/csv", new ByteArrayOutputStream());
+            fail("there is no writer for text/csv");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof MessageBodyProviderNotFoundException);
+        }
+        assertEquals(TestController.closedStreams.get(), closed + 1);
+    }
+
+    @Test
+    public void testObjectNodeIsNotStreamed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(get("/api/node", "application/json", out).getStatus(), 200);
+
+        JsonNode node = Json.mapper().readTree(out.toByteArray());
+        assertTrue(node.isObject());
+        assertEquals(node.get("user").asText(), "fehguy");
+    }
+
+    private ContainerResponse get(String path, String accept, ByteArrayOutputStream out) throws Exception {
+        ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path.substring(1)), "GET", null,
+                new MapPropertiesDelegate());
+        request.header("Accept", accept);
+        return handler.apply(request, out).get();
+    }
+}
@@ -22,8 +22,15 @@ import io.swagger.util.Json;
 import io.swagger.util.Yaml;
 import org.testng.annotations.Test;
 
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
 public class SwaggerListingIT {
@@ -44,4 +51,27 @@ public class SwaggerListingIT {
 
         assertNotNull(swagger);
     }
+
+    @Test
+    public void verifySwaggerJsonNotModified() throws Exception {
+        WebTarget target = ClientBuilder.newClient().target(client.getBasePath()).path("swagger.json");
+        Response response = target.request("application/json").get();
+        EntityTag tag = response.getEntityTag();
+        response.close();
+        assertNotNull(tag);
+
+        Response notModified = target.request("application/json").header("If-None-Match", tag.toString()).get();
+        assertEquals(notModified.getStatus(), 304);
+        notModified.close();
+    }
+
+    @Test
+    public void verifySwaggerJsonGzip() throws Exception {
+        Response response = ClientBuilder.newClient().target(client.getBasePath()).path("swagger.json")
+                .request("application/json").header("Accept-Encoding", "gzip").get();
+        assertEquals(response.getHeaderString("Content-Encoding"), "gzip");
+
+        Swagger swagger = Json.mapper().readValue(new GZIPInputStream(response.readEntity(InputStream.class)), Swagger.class);
+        assertNotNull(swagger);
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.benchmark;
+
+import io.swagger.inflector.invocation.ControllerInvoker;
+import io.swagger.inflector.invocation.MethodHandleInvoker;
+import io.swagger.inflector.invocation.ReflectionInvoker;
+import io.swagger.inflector.models.RequestContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of calling a controller method through {@link ReflectionInvoker},
+ * {@link MethodHandleInvoker} and a direct call, which is what invokers generated at build time
+ * do.  The `single` benchmarks call one operation, the `mixed` ones three operations in turn
+ * through the same call site, as {@link io.swagger.inflector.SwaggerOperationController} does.
+ * It is not run as part of the build; run its main method with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InvokerBenchmark {
+    public static class Controller {
+        public Object search(RequestContext request, String name, Integer limit) {
+            return name;
+        }
+
+        public Object profile(RequestContext request, String token, Boolean verbose) {
+            return token;
+        }
+
+        public Object item(RequestContext request, Long id, String tag) {
+            return tag;
+        }
+    }
+
+    private final Controller controller = new Controller();
+    private final Object[][] args = new Object[][]{
+            {new RequestContext(), "fehguy", 10},
+            {new RequestContext(), "token", Boolean.TRUE},
+            {new RequestContext(), 42L, "tag"}};
+    private ControllerInvoker[] reflection;
+    private ControllerInvoker[] methodHandles;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        Method[] methods = new Method[]{
+                Controller.class.getMethod("search", RequestContext.class, String.class, Integer.class),
+                Controller.class.getMethod("profile", RequestContext.class, String.class, Boolean.class),
+                Controller.class.getMethod("item", RequestContext.class, Long.class, String.class)};
+        reflection = new ControllerInvoker[methods.length];
+        methodHandles = new ControllerInvoker[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            reflection[i] = new ReflectionInvoker(methods[i], controller);
+            methodHandles[i] = new MethodHandleInvoker(methods[i], controller);
+        }
+    }
+
+    @Benchmark
+    public Object singleDirect() {
+        Object[] a = args[0];
+        return controller.search((RequestContext) a[0], (String) a[1], (Integer) a[2]);
+    }
+
+    @Benchmark
+    public Object singleReflection() throws Exception {
+        return reflection[0].invoke(args[0]);
+    }
+
+    @Benchmark
+    public Object singleMethodHandle() throws Exception {
+        return methodHandles[0].invoke(args[0]);
+    }
+
+    @Benchmark
+    public Object mixedDirect() {
+        int i = next();
+        Object[] a = args[i];
+        switch (i) {
+            case 0:
+                return controller.search((RequestContext) a[0], (String) a[1], (Integer) a[2]);
+            case 1:
+                return controller.profile((RequestContext) a[0], (String) a[1], (Boolean) a[2]);
+            default:
+                return controller.item((RequestContext) a[0], (Long) a[1], (String) a[2]);
+        }
+    }
+
+    @Benchmark
+    public Object mixedReflection() throws Exception {
+        int i = next();
+        return reflection[i].invoke(args[i]);
+    }
+
+    @Benchmark
+    public Object mixedMethodHandle() throws Exception {
+        int i = next();
+        return methodHandles[i].invoke(args[i]);
+    }
+
+    private int next() {
+        int i = next;
+        next = i == 2 ? 0 : i + 1;
+        return i;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(InvokerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.utils.ReflectionUtils;
+import io.swagger.models.ModelImpl;
+import io.swagger.test.models.Person;
+import io.swagger.test.models.User;
+import io.swagger.util.Json;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON writes and reads of the test models with and without the Afterburner module, for
+ * the classes resolved through {@link ReflectionUtils#detectModel} as the controllers would see
+ * them.  It is not run as part of the build; run its main method with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+    @Param({"reflection", "afterburner"})
+    public String mode;
+
+    @Param({"User", "Person"})
+    public String model;
+
+    private Object value;
+    private byte[] json;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws Exception {
+        Configuration config = new Configuration()
+                .modelMap("User", User.class)
+                .modelMap("Person", Person.class);
+        ReflectionUtils utils = new ReflectionUtils();
+        utils.setConfiguration(config);
+
+        if ("User".equals(model)) {
+            User user = new User().id(42L).user("fehguy");
+            user.setChildNames(Arrays.asList("tony", "sam"));
+            value = user;
+        } else {
+            Person person = new Person();
+            person.id = 7L;
+            person.name = "fehguy";
+            value = person;
+        }
+
+        ObjectMapper mapper = Json.mapper().copy();
+        if ("afterburner".equals(mode)) {
+            mapper.registerModule(new AfterburnerModule());
+        }
+        Class<?> cls = utils.detectModel(model, new ModelImpl());
+        writer = mapper.writerWithType(cls);
+        reader = mapper.reader(cls);
+        json = writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole) throws Exception {
+        blackhole.consume(writer.writeValueAsBytes(value));
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws Exception {
+        blackhole.consume(reader.readValue(json));
+    }
+
+    @Benchmark
+    public void roundTrip(Blackhole blackhole) throws Exception {
+        blackhole.consume(reader.readValue(writer.writeValueAsBytes(value)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(MapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
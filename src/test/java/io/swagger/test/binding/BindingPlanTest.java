@@ -0,0 +1,199 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.binding;
+
+import io.swagger.inflector.binding.BindingContext;
+import io.swagger.inflector.binding.BindingPlan;
+import io.swagger.inflector.binding.MultipartParser;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.models.RequestContext;
+import io.swagger.inflector.utils.ReflectionUtils;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.parameters.FormParameter;
+import io.swagger.models.parameters.HeaderParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.PathParameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.properties.StringProperty;
+import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class BindingPlanTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ReflectionUtils utils = new ReflectionUtils();
+    private final MultipartParser multipartParser = new MultipartParser(MultipartParser.DEFAULT_MEMORY_THRESHOLD, null);
+
+    public BindingPlanTest() {
+        utils.setConfiguration(new Configuration());
+    }
+
+    @Test
+    public void testBindByLocation() throws Exception {
+        Operation operation = new Operation()
+                .parameter(new PathParameter().name("id").type("integer").format("int64"))
+                .parameter(new QueryParameter().name("tags").type("array").items(new StringProperty()).collectionFormat("csv"))
+                .parameter(new HeaderParameter().name("X-Token").type("string"));
+        BindingPlan plan = create(operation, Long.class, List.class, String.class);
+        Request request = new Request();
+        request.path.add("id", "42");
+        request.query.add("tags", "a,b");
+        request.headers.add("X-Token", "secret");
+
+        Object[] args = new Object[4];
+        args[0] = new RequestContext();
+        assertNull(plan.bind(plan.createContext(request.proxy()), args));
+
+        assertTrue(args[0] instanceof RequestContext);
+        assertEquals(args[1], 42L);
+        assertEquals(args[2], Arrays.asList("a", "b"));
+        assertEquals(args[3], "secret");
+    }
+
+    @Test
+    public void testBindFormDataWithItsOwnClass() throws Exception {
+        Operation operation = new Operation()
+                .parameter(new FormParameter().name("name").type("string"))
+                .parameter(new FormParameter().name("age").type("integer").format("int32"));
+        BindingPlan plan = create(operation, String.class, Integer.class);
+        Request request = new Request();
+        request.mediaType = MediaType.APPLICATION_FORM_URLENCODED_TYPE;
+        request.body = "age=7&other=ignored&name=fehguy";
+
+        Object[] args = new Object[3];
+        BindingContext context = plan.createContext(request.proxy());
+        try {
+            assertNull(plan.bind(context, args));
+        } finally {
+            context.close();
+        }
+
+        assertTrue(plan.hasFormParameters());
+        assertEquals(args[1], "fehguy");
+        assertEquals(args[2], 7);
+    }
+
+    @Test
+    public void testMissingRequiredParameters() throws Exception {
+        Operation operation = new Operation()
+                .parameter(new QueryParameter().name("q").type("string").required(true))
+                .parameter(new QueryParameter().name("limit").type("integer").format("int32"))
+                .parameter(new HeaderParameter().name("X-Token").type("string").required(true));
+        BindingPlan plan = create(operation, String.class, Integer.class, String.class);
+        Request request = new Request();
+        request.headers.add("X-Token", "secret");
+
+        Object[] args = new Object[4];
+        List<Parameter> missing = plan.bind(plan.createContext(request.proxy()), args);
+
+        assertEquals(missing.size(), 1);
+        assertEquals(missing.get(0).getName(), "q");
+        assertNull(args[1]);
+        assertNull(args[2]);
+        assertEquals(args[3], "secret");
+    }
+
+    @Test
+    public void testUncoercibleRequiredParameter() throws Exception {
+        Operation operation = new Operation()
+                .parameter(new QueryParameter().name("limit").type("integer").format("int32").required(true));
+        BindingPlan plan = create(operation, Integer.class);
+        Request request = new Request();
+        request.query.add("limit", "ten");
+
+        List<Parameter> missing = plan.bind(plan.createContext(request.proxy()), new Object[2]);
+
+        assertEquals(missing.size(), 1);
+        assertEquals(missing.get(0).getName(), "limit");
+    }
+
+    private BindingPlan create(Operation operation, Class<?>... classes) {
+        Class<?>[] parameterClasses = new Class<?>[classes.length + 1];
+        parameterClasses[0] = RequestContext.class;
+        System.arraycopy(classes, 0, parameterClasses, 1, classes.length);
+        return BindingPlan.create(utils, operation, parameterClasses, new HashMap<String, Model>(), multipartParser);
+    }
+
+    /**
+     * The parts of a request the binders read, served through a {@link ContainerRequestContext}
+     * proxy so that path parameters can be set without routing the request.
+     */
+    static class Request {
+        final MultivaluedMap<String, String> query = new MultivaluedStringMap();
+        final MultivaluedMap<String, String> path = new MultivaluedStringMap();
+        final MultivaluedMap<String, String> headers = new MultivaluedStringMap();
+        MediaType mediaType;
+        String body;
+
+        ContainerRequestContext proxy() {
+            final UriInfo uriInfo = (UriInfo) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{UriInfo.class},
+                    new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if ("getQueryParameters".equals(method.getName())) {
+                                return query;
+                            }
+                            if ("getPathParameters".equals(method.getName())) {
+                                return path;
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+            return (ContainerRequestContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ContainerRequestContext.class}, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            String name = method.getName();
+                            if ("getUriInfo".equals(name)) {
+                                return uriInfo;
+                            }
+                            if ("getHeaders".equals(name)) {
+                                return headers;
+                            }
+                            if ("getMediaType".equals(name)) {
+                                return mediaType;
+                            }
+                            if ("hasEntity".equals(name)) {
+                                return body != null;
+                            }
+                            if ("getEntityStream".equals(name)) {
+                                return new ByteArrayInputStream(body.getBytes(UTF_8));
+                            }
+                            throw new UnsupportedOperationException(name);
+                        }
+                    });
+        }
+    }
+}
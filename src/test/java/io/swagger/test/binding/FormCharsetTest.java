@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.binding;
+
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FormCharsetTest {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ApplicationHandler handler = new ApplicationHandler(new SwaggerInflector(new Configuration()
+            .controllerPackage("io.swagger.sample.controllers")
+            .swaggerUrl("./src/test/swagger/forms.yaml")));
+
+    @Test
+    public void testFormCharset() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContainerResponse response = post("/api/form", "application/x-www-form-urlencoded; charset=ISO-8859-1",
+                "id=1&name=fehguy", out);
+        assertEquals(response.getStatus(), 200);
+        assertTrue(out.toString("UTF-8").contains("fehguy"));
+    }
+
+    @Test
+    public void testUnsupportedFormCharset() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContainerResponse response = post("/api/form", "application/x-www-form-urlencoded; charset=x-bogus",
+                "id=1&name=fehguy", out);
+        assertEquals(response.getStatus(), 415);
+        assertTrue(out.toString("UTF-8").contains("Unsupported charset x-bogus"));
+    }
+
+    @Test
+    public void testIllegalFormCharset() throws Exception {
+        ContainerResponse response = post("/api/form", "application/x-www-form-urlencoded; charset=\"not a charset\"",
+                "id=1&name=fehguy", new ByteArrayOutputStream());
+        assertEquals(response.getStatus(), 415);
+    }
+
+    @Test
+    public void testPartCharset() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContainerResponse response = post("/api/upload", "multipart/form-data; boundary=XyZ", multipart("ISO-8859-1"), out);
+        assertEquals(response.getStatus(), 200);
+        assertTrue(out.toString("UTF-8").contains("fehguy"));
+    }
+
+    @Test
+    public void testUnsupportedPartCharset() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContainerResponse response = post("/api/upload", "multipart/form-data; boundary=XyZ", multipart("x-bogus"), out);
+        assertEquals(response.getStatus(), 415);
+        assertTrue(out.toString("UTF-8").contains("Unsupported charset x-bogus"));
+    }
+
+    @Test
+    public void testMalformedPartContentType() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContainerResponse response = post("/api/upload", "multipart/form-data; boundary=XyZ", multipartWithPartType("text/plain; charset"),
+                out);
+        assertEquals(response.getStatus(), 415);
+        assertTrue(out.toString("UTF-8").contains("Invalid part content type"));
+    }
+
+    private static String multipart(String charset) {
+        return multipartWithPartType("text/plain; charset=" + charset);
+    }
+
+    private static String multipartWithPartType(String contentType) {
+        return "--XyZ\r\n" +
+                "Content-Disposition: form-data; name=\"name\"\r\n" +
+                "Content-Type: " + contentType + "\r\n" +
+                "\r\n" +
+                "fehguy\r\n" +
+                "--XyZ\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n" +
+                "Content-Type: application/octet-stream\r\n" +
+                "\r\n" +
+                "content\r\n" +
+                "--XyZ--\r\n";
+    }
+
+    private ContainerResponse post(String path, String contentType, String body, ByteArrayOutputStream out) throws Exception {
+        ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path.substring(1)), "POST", null,
+                new MapPropertiesDelegate());
+        request.header("Content-Type", contentType);
+        request.setEntityStream(new ByteArrayInputStream(body.getBytes(UTF_8)));
+        return handler.apply(request, out).get();
+    }
+}
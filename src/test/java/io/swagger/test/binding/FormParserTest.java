@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test.binding;
+
+import io.swagger.inflector.binding.FormParser;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class FormParserTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testParseDeclaredFields() throws Exception {
+        FormParser parser = new FormParser(new String[]{"id", "name"});
+        List<String>[] values = parse(parser, "id=42&other=ignored&name=fehguy");
+
+        assertEquals(values[parser.indexOf("id")], Arrays.asList("42"));
+        assertEquals(values[parser.indexOf("name")], Arrays.asList("fehguy"));
+        assertEquals(parser.indexOf("other"), -1);
+    }
+
+    @Test
+    public void testDecodeValues() throws Exception {
+        FormParser parser = new FormParser(new String[]{"first name", "city"});
+        List<String>[] values = parse(parser, "first+name=Tony+Tam&city=M%C3%BCnchen%2C%20DE");
+
+        assertEquals(values[0], Arrays.asList("Tony Tam"));
+        assertEquals(values[1], Arrays.asList("M\u00fcnchen, DE"));
+    }
+
+    @Test
+    public void testRepeatedFields() throws Exception {
+        FormParser parser = new FormParser(new String[]{"tag"});
+        List<String>[] values = parse(parser, "tag=a&tag=b&tag=c");
+
+        assertEquals(values[0], Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    public void testEmptyAndMissingValues() throws Exception {
+        FormParser parser = new FormParser(new String[]{"a", "b", "c", "d"});
+        List<String>[] values = parse(parser, "a=&b&&c=%zz%4");
+
+        assertEquals(values[0], Arrays.asList(""));
+        assertEquals(values[1], Arrays.asList(""));
+        assertEquals(values[2], Arrays.asList("%zz%4"));
+        assertNull(values[3]);
+    }
+
+    @Test
+    public void testValueLargerThanBuffer() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        FormParser parser = new FormParser(new String[]{"big"});
+        List<String>[] values = parse(parser, "skip=" + builder + "&big=" + builder);
+
+        assertEquals(values[0], Arrays.asList(builder.toString()));
+    }
+
+    private List<String>[] parse(FormParser parser, String body) throws Exception {
+        return parser.parse(new ByteArrayInputStream(body.getBytes(UTF_8)), UTF_8);
+    }
+}
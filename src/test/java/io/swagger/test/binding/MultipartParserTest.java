@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.binding;
+
+import io.swagger.inflector.binding.MultipartBody;
+import io.swagger.inflector.binding.MultipartParser;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jvnet.mimepull.MIMEPart;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class MultipartParserTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final MediaType MULTIPART = MediaType.valueOf("multipart/form-data; boundary=XyZ");
+
+    @Test
+    public void testParseFields() throws Exception {
+        MultipartBody body = new MultipartParser(-1, null).parse(stream(
+                "--XyZ\r\n" +
+                "Content-Disposition: form-data; name=\"name\"\r\n" +
+                "\r\n" +
+                "fehguy\r\n" +
+                "--XyZ\r\n" +
+                "Content-Disposition: form-data; name=\"city\"\r\n" +
+                "Content-Type: text/plain; charset=ISO-8859-1\r\n" +
+                "\r\n" +
+                "M\u00fcnchen\r\n" +
+                "--XyZ--\r\n", Charset.forName("ISO-8859-1")), MULTIPART);
+
+        assertEquals(body.getValues("name", UTF_8), Arrays.asList("fehguy"));
+        assertEquals(body.getValues("city", UTF_8), Arrays.asList("M\u00fcnchen"));
+        assertNull(body.getValues("other", UTF_8));
+        body.close();
+    }
+
+    @Test
+    public void testSpillLargePart() throws Exception {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "inflector-multipart-test");
+        dir.mkdirs();
+        String content = StringUtils.repeat("x", 64 * 1024);
+        MultipartBody body = new MultipartParser(1024, dir.getAbsolutePath()).parse(stream(
+                "--XyZ\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n" +
+                "Content-Type: application/octet-stream\r\n" +
+                "\r\n" +
+                content + "\r\n" +
+                "--XyZ--\r\n", UTF_8), MULTIPART);
+
+        assertTrue(dir.list().length > 0);
+        MIMEPart part = body.getPart("file");
+        InputStream in = part.read();
+        assertEquals(IOUtils.toString(in, UTF_8), content);
+        in.close();
+
+        body.close();
+        assertEquals(dir.list().length, 0);
+        dir.delete();
+    }
+
+    @Test
+    public void testMoveToFile() throws Exception {
+        MultipartBody body = new MultipartParser(-1, null).parse(stream(
+                "--XyZ\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n" +
+                "\r\n" +
+                "hello\r\n" +
+                "--XyZ--\r\n", UTF_8), MULTIPART);
+
+        File file = File.createTempFile("inflector", ".test");
+        file.delete();
+        body.getPart("file").moveTo(file);
+        assertEquals(IOUtils.toString(file.toURI(), UTF_8), "hello");
+        body.close();
+        assertTrue(file.delete());
+        assertFalse(file.exists());
+    }
+
+    private static InputStream stream(String body, Charset charset) {
+        return new ByteArrayInputStream(body.getBytes(charset));
+    }
+}
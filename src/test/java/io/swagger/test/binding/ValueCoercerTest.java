@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.binding;
+
+import io.swagger.inflector.SwaggerOperationController;
+import io.swagger.inflector.binding.ValueCoercer;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.utils.ReflectionUtils;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class ValueCoercerTest {
+    private final ReflectionUtils utils = new ReflectionUtils();
+    private final HashMap<String, Model> definitions = new HashMap<String, Model>();
+
+    public ValueCoercerTest() {
+        utils.setConfiguration(new Configuration());
+    }
+
+    @Test
+    public void testCsv() throws Exception {
+        assertEquals(coerce(array("csv", new IntegerProperty()), "1,2,3"), Arrays.asList(1, 2, 3));
+    }
+
+    @Test
+    public void testPipes() throws Exception {
+        // split on a literal '|', not on the empty alternation of the regex "|"
+        assertEquals(coerce(array("pipes", new StringProperty()), "ab|cd|e"), Arrays.asList("ab", "cd", "e"));
+    }
+
+    @Test
+    public void testSsv() throws Exception {
+        assertEquals(coerce(array("ssv", new StringProperty()), "a b c"), Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    public void testTsv() throws Exception {
+        assertEquals(coerce(array("tsv", new IntegerProperty()), "1\t2"), Arrays.asList(1, 2));
+    }
+
+    @Test
+    public void testMulti() throws Exception {
+        assertEquals(coerce(array("multi", new StringProperty()), "a,b", "c"), Arrays.asList("a,b", "c"));
+    }
+
+    @Test
+    public void testSkipEmptyAndInvalidItems() throws Exception {
+        assertEquals(coerce(array("csv", new IntegerProperty()), "", "1,x,3"), Arrays.asList(1, 3));
+    }
+
+    @Test
+    public void testScalarUsesFirstValue() throws Exception {
+        assertEquals(coerce(new QueryParameter().name("limit").type("integer"), Integer.class, "10", "20"), 10);
+    }
+
+    @Test
+    public void testNoValues() throws Exception {
+        ValueCoercer coercer = ValueCoercer.create(utils, array("csv", new IntegerProperty()), List.class, definitions);
+        assertNull(coercer.coerce(null));
+        assertNull(coercer.coerce(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testNonSerializableParameter() throws Exception {
+        assertNull(coerce(new BodyParameter().name("body"), String.class, "value"));
+    }
+
+    @Test
+    public void testControllerCoerceValue() throws Exception {
+        Configuration config = new Configuration();
+        config.setLazyBinding(true);
+        SwaggerOperationController controller = new SwaggerOperationController(config, "/coerce", "GET",
+                new Operation().operationId("coerce"), definitions);
+
+        assertEquals(controller.coerceValue(Arrays.asList("1|2"), array("pipes", new IntegerProperty()), List.class),
+                Arrays.asList(1, 2));
+    }
+
+    private QueryParameter array(String collectionFormat, Property items) {
+        return new QueryParameter().name("values").type("array").items(items).collectionFormat(collectionFormat);
+    }
+
+    private Object coerce(Parameter parameter, String... values) {
+        return coerce(parameter, List.class, values);
+    }
+
+    private Object coerce(Parameter parameter, Class<?> cls, String... values) {
+        return ValueCoercer.create(utils, parameter, cls, definitions).coerce(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.codegen;
+
+import io.swagger.inflector.SwaggerOperationController;
+import io.swagger.inflector.codegen.AdapterGenerator;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.invocation.ControllerInvoker;
+import io.swagger.inflector.invocation.ControllerInvokers;
+import io.swagger.inflector.invocation.InvokerFactory;
+import io.swagger.inflector.invocation.OperationBindingFactory;
+import io.swagger.inflector.models.RequestContext;
+import io.swagger.inflector.models.ResponseContext;
+import io.swagger.inflector.utils.ClassIndex;
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.sample.controllers.TestController;
+import io.swagger.test.models.User;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class AdapterGeneratorTest {
+    @Test
+    public void testGenerateAndCompile() throws Exception {
+        Configuration config = new Configuration()
+                .controllerPackage("io.swagger.sample.controllers")
+                .swaggerUrl("./src/test/swagger/sample1.yaml");
+        AdapterGenerator generator = new AdapterGenerator(config, getClass().getClassLoader())
+                .className("io.swagger.test.generated.TestInvokers")
+                .bind();
+        String source = generator.generateSource();
+        assertTrue(source.contains("controller.uploadFile((io.swagger.inflector.models.RequestContext) args[0], "
+                + "(java.lang.String) args[1], (java.nio.file.Path) args[2])"));
+        assertFalse(generator.getUnboundOperations().contains("POST /upload"));
+
+        File dir = Files.createTempDirectory("inflector-adapters").toFile();
+        File classes = new File(dir, "classes");
+        generator.compile(generator.writeSource(new File(dir, "src")), classes, System.getProperty("java.class.path"));
+        generator.writeServiceFile(classes);
+        assertTrue(new File(classes, "META-INF/services/" + InvokerFactory.class.getName()).isFile());
+        assertTrue(new File(classes, "META-INF/services/" + OperationBindingFactory.class.getName()).isFile());
+
+        URLClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+        try {
+            InvokerFactory factory = (InvokerFactory) loader.loadClass("io.swagger.test.generated.TestInvokers").newInstance();
+            Method method = TestController.class.getMethod("currentThread", RequestContext.class);
+            ControllerInvoker invoker = factory.create(method, new TestController());
+            assertEquals(invoker.getMode(), ControllerInvokers.GENERATED_MODE);
+            ResponseContext response = (ResponseContext) invoker.invoke(new Object[]{new RequestContext()});
+            assertEquals(((User) response.getEntity()).getUser(), Thread.currentThread().getName());
+
+            assertNull(factory.create(Object.class.getMethod("toString"), new TestController()));
+
+            ControllerInvokers.register(factory);
+            try {
+                assertEquals(ControllerInvokers.create(method, new TestController()).getMode(), ControllerInvokers.GENERATED_MODE);
+            } finally {
+                ControllerInvokers.unregister(factory);
+            }
+        } finally {
+            loader.close();
+        }
+    }
+
+    @Test
+    public void testBindFromGeneratedBindings() throws Exception {
+        Configuration config = new Configuration()
+                .controllerPackage("io.swagger.sample.controllers")
+                .swaggerUrl("./src/test/swagger/sample1.yaml");
+        AdapterGenerator generator = new AdapterGenerator(config, getClass().getClassLoader())
+                .className("io.swagger.test.generated.BindingInvokers")
+                .bind();
+        File dir = Files.createTempDirectory("inflector-adapters").toFile();
+        File classes = new File(dir, "classes");
+        generator.compile(generator.writeSource(new File(dir, "src")), classes, System.getProperty("java.class.path"));
+
+        Swagger swagger = new SwaggerParser().read(config.getSwaggerUrl());
+        Operation operation = swagger.getPath("/threads").getGet();
+        final List<String> scanned = new ArrayList<String>();
+        ClassIndex classIndex = new ClassIndex() {
+            @Override
+            public List<Method> getMethods(Class<?> cls, String name) {
+                scanned.add(name);
+                return super.getMethods(cls, name);
+            }
+        };
+
+        URLClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+        try {
+            OperationBindingFactory factory = (OperationBindingFactory) loader.loadClass("io.swagger.test.generated.BindingInvokers")
+                    .newInstance();
+            assertNull(factory.find("io.swagger.sample.controllers.TestController", "currentThread", new Class<?>[0]));
+
+            ControllerInvokers.register(factory);
+            try {
+                SwaggerOperationController controller = new SwaggerOperationController(config, "/threads", "GET", operation,
+                        swagger.getDefinitions(), classIndex);
+                assertEquals(controller.getMethod(), TestController.class.getMethod("currentThread", RequestContext.class));
+                assertTrue(controller.getController() instanceof TestController);
+                assertTrue(scanned.isEmpty());
+            } finally {
+                ControllerInvokers.unregister(factory);
+            }
+        } finally {
+            loader.close();
+        }
+
+        new SwaggerOperationController(config, "/threads", "GET", operation, swagger.getDefinitions(), classIndex);
+        assertEquals(scanned, Arrays.asList("currentThread"));
+    }
+
+    @Test
+    public void testBindWithoutCreatingControllers() throws Exception {
+        File dir = Files.createTempDirectory("inflector-adapters").toFile();
+        File spec = new File(dir, "counting.yaml");
+        Files.write(spec.toPath(), ("swagger: '2.0'\n"
+                + "info:\n"
+                + "  version: 0.0.0\n"
+                + "  title: counting\n"
+                + "paths:\n"
+                + "  /count:\n"
+                + "    get:\n"
+                + "      x-swagger-router-controller: " + CountingController.class.getName() + "\n"
+                + "      operationId: count\n"
+                + "      responses:\n"
+                + "        '200':\n"
+                + "          description: count\n").getBytes("UTF-8"));
+        AdapterGenerator generator = new AdapterGenerator(new Configuration().swaggerUrl(spec.getPath()), getClass().getClassLoader())
+                .bind();
+
+        assertTrue(generator.generateSource().contains("controller.count("));
+        assertEquals(CountingController.instances, 0);
+    }
+
+    @Test
+    public void testCompileForTarget() throws Exception {
+        Configuration config = new Configuration()
+                .controllerPackage("io.swagger.sample.controllers")
+                .swaggerUrl("./src/test/swagger/sample1.yaml");
+        AdapterGenerator generator = new AdapterGenerator(config, getClass().getClassLoader())
+                .className("io.swagger.test.generated.TargetInvokers")
+                .target("1.7")
+                .bind();
+        File dir = Files.createTempDirectory("inflector-adapters").toFile();
+        File classes = new File(dir, "classes");
+        generator.compile(generator.writeSource(new File(dir, "src")), classes, System.getProperty("java.class.path"));
+
+        byte[] bytes = Files.readAllBytes(new File(classes, "io/swagger/test/generated/TargetInvokers.class").toPath());
+        // major version 51 is Java 7
+        assertEquals(((bytes[6] & 0xff) << 8) | (bytes[7] & 0xff), 51);
+    }
+
+    @Test
+    public void testResolveSpecAgainstBasedir() throws Exception {
+        File basedir = new File("").getAbsoluteFile();
+        File dir = Files.createTempDirectory("inflector-adapters").toFile();
+        File configFile = new File(dir, "inflector.yaml");
+        Files.write(configFile.toPath(), ("controllerPackage: io.swagger.sample.controllers\n"
+                + "swaggerUrl: src/test/swagger/sample1.yaml\n").getBytes("UTF-8"));
+        Configuration config = Configuration.readFile(configFile);
+
+        AdapterGenerator generator = new AdapterGenerator(config, getClass().getClassLoader())
+                .basedir(basedir)
+                .bind();
+        assertTrue(generator.generateSource().contains("controller.currentThread("));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testMissingConfiguration() throws Exception {
+        File dir = Files.createTempDirectory("inflector-adapters").toFile();
+        AdapterGenerator.run(new File(dir, "inflector.yaml"), dir, new File(dir, "src"), new File(dir, "classes"),
+                System.getProperty("java.class.path"));
+    }
+
+    public static class CountingController {
+        static int instances;
+
+        public CountingController() {
+            instances += 1;
+        }
+
+        public ResponseContext count(RequestContext request) {
+            return new ResponseContext().entity(instances);
+        }
+    }
+}
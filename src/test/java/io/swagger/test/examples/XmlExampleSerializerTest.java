@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.examples;
+
+import io.swagger.inflector.examples.ExampleBuilder;
+import io.swagger.inflector.examples.XmlExampleSerializer;
+import io.swagger.inflector.examples.models.Example;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class XmlExampleSerializerTest {
+    @Test
+    public void testSerializeToStream() throws Exception {
+        Map<String, Model> definitions = new HashMap<String, Model>();
+        definitions.put("City", new ModelImpl()
+                .property("name", new StringProperty().example("M\u00fcnchen")));
+        Example example = (Example) ExampleBuilder.fromProperty(new RefProperty("City"), definitions);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new XmlExampleSerializer().serialize(example, out);
+
+        String xml = out.toString("UTF-8");
+        assertTrue(xml.endsWith("<City><name>M\u00fcnchen</name></City>"));
+        assertEquals(new XmlExampleSerializer().serialize(example), xml);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.integration.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.test.client.ApiClient;
+import io.swagger.test.client.ApiException;
+import io.swagger.util.Json;
+import org.glassfish.jersey.media.multipart.FormDataMultiPart;
+import org.glassfish.jersey.media.multipart.file.StreamDataBodyPart;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+
+import static org.testng.Assert.assertEquals;
+
+public class MultipartControllerTestIT {
+    ApiClient client = new ApiClient();
+
+    /**
+     * verifies that a file part larger than the memory threshold is handed to the controller as a file
+     */
+    @Test
+    public void verifyFileUpload() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024];
+        FormDataMultiPart multiPart = new FormDataMultiPart();
+        multiPart.field("name", "fehguy");
+        multiPart.bodyPart(new StreamDataBodyPart("file", new ByteArrayInputStream(content), "upload.bin"));
+
+        String str = client.invokeAPI("/upload", "POST", new HashMap<String, String>(), null, new HashMap<String, String>(),
+                Entity.entity(multiPart, MediaType.MULTIPART_FORM_DATA_TYPE), "application/json", null, new String[0]);
+        JsonNode node = Json.mapper().readValue(str, JsonNode.class);
+        assertEquals(node.get("user").asText(), "fehguy");
+        assertEquals(node.get("id").asLong(), content.length);
+    }
+
+    /**
+     * verifies that a missing file part is reported as a missing required parameter
+     */
+    @Test(expectedExceptions = ApiException.class)
+    public void verifyMissingFile() throws Exception {
+        FormDataMultiPart multiPart = new FormDataMultiPart();
+        multiPart.field("name", "fehguy");
+
+        client.invokeAPI("/upload", "POST", new HashMap<String, String>(), null, new HashMap<String, String>(),
+                Entity.entity(multiPart, MediaType.MULTIPART_FORM_DATA_TYPE), "application/json", null, new String[0]);
+    }
+}
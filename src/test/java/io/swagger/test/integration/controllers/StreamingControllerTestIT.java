@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.integration.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.test.client.ApiClient;
+import io.swagger.util.Json;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+public class StreamingControllerTestIT {
+    ApiClient client = new ApiClient();
+
+    /**
+     * verifies that an iterator returned by a controller is written as a JSON array
+     */
+    @Test
+    public void verifyStreamedArray() throws Exception {
+        Map<String, String> queryParams = new HashMap<String, String>();
+        queryParams.put("count", "5000");
+
+        String str = client.invokeAPI("/stream", "GET", queryParams, null, new HashMap<String, String>(), null, "application/json", null, new String[0]);
+        JsonNode node = Json.mapper().readValue(str, JsonNode.class);
+        assertEquals(node.size(), 5000);
+        assertEquals(node.get(4999).get("id").asLong(), 4999L);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.processors;
+
+import io.swagger.inflector.processors.EntityProcessor;
+import io.swagger.inflector.processors.EntityProcessorFactory;
+import io.swagger.inflector.processors.JacksonProcessor;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class EntityProcessorFactoryTest {
+    @Test
+    public void testResolveIgnoresParameters() throws Exception {
+        EntityProcessor json = EntityProcessorFactory.getProcessor(MediaType.APPLICATION_JSON_TYPE);
+        assertTrue(json instanceof JacksonProcessor);
+        assertSame(EntityProcessorFactory.getProcessor(MediaType.valueOf("application/json; charset=UTF-8")), json);
+        assertSame(EntityProcessorFactory.getProcessor(MediaType.valueOf("application/yaml; charset=UTF-8")), json);
+    }
+
+    @Test
+    public void testUnsupportedType() throws Exception {
+        MediaType type = MediaType.valueOf("application/x-unsupported");
+        assertNull(EntityProcessorFactory.getProcessor(type));
+        assertNull(EntityProcessorFactory.readValue(type, new ByteArrayInputStream(new byte[0]), String.class));
+        assertNull(EntityProcessorFactory.getProcessor(null));
+    }
+
+    @Test
+    public void testGetProcessorsReturnsCopy() throws Exception {
+        List<EntityProcessor> processors = EntityProcessorFactory.getProcessors();
+        processors.clear();
+
+        assertFalse(EntityProcessorFactory.getProcessors().isEmpty());
+        assertTrue(EntityProcessorFactory.getProcessor(MediaType.APPLICATION_JSON_TYPE) instanceof JacksonProcessor);
+    }
+
+    @Test
+    public void testPriorityAndInvalidation() throws Exception {
+        MediaType type = MediaType.valueOf("text/csv");
+        assertNull(EntityProcessorFactory.getProcessor(type));
+
+        EntityProcessor csv = new StubProcessor("text", "csv");
+        EntityProcessor json = new StubProcessor("application", "json");
+        EntityProcessorFactory.addProcessor(csv);
+        EntityProcessorFactory.addProcessor(json, 10);
+        try {
+            assertSame(EntityProcessorFactory.getProcessor(type), csv);
+            assertSame(EntityProcessorFactory.getProcessor(MediaType.APPLICATION_JSON_TYPE), json);
+            assertEquals(EntityProcessorFactory.getProcessors().get(0), json);
+        } finally {
+            EntityProcessorFactory.removeProcessor(csv);
+            EntityProcessorFactory.removeProcessor(json);
+        }
+        assertNull(EntityProcessorFactory.getProcessor(type));
+        assertTrue(EntityProcessorFactory.getProcessor(MediaType.APPLICATION_JSON_TYPE) instanceof JacksonProcessor);
+    }
+
+    static class StubProcessor implements EntityProcessor {
+        private final MediaType mediaType;
+
+        StubProcessor(String type, String subtype) {
+            this.mediaType = new MediaType(type, subtype);
+        }
+
+        @Override
+        public boolean supports(MediaType mediaType) {
+            return this.mediaType.isCompatible(mediaType);
+        }
+
+        @Override
+        public Object process(MediaType mediaType, InputStream entityStream, Class<?> cls) {
+            return null;
+        }
+    }
+}
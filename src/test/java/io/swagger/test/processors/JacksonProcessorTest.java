@@ -19,6 +19,8 @@ package io.swagger.test.processors;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.inflector.processors.EntityProcessorFactory;
+import io.swagger.inflector.processors.JacksonProcessor;
+import io.swagger.test.models.User;
 import org.testng.annotations.Test;
 
 import javax.ws.rs.core.MediaType;
@@ -26,6 +28,8 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class JacksonProcessorTest {
     @Test
@@ -60,4 +64,53 @@ public class JacksonProcessorTest {
         assertEquals(o.get("name").asText(), "fehguy");
         assertEquals(o.get("userId").asText(), "42");
     }
+
+    @Test
+    public void testConvertSmileContent() throws Exception {
+        byte[] input = JacksonProcessor.smileMapper().writeValueAsBytes(new User().id(42L).user("fehguy"));
+
+        InputStream is = new ByteArrayInputStream(input);
+        User user = (User) EntityProcessorFactory.readValue(JacksonProcessor.APPLICATION_SMILE_TYPE, is, User.class);
+        assertEquals(user.getUser(), "fehguy");
+        assertEquals(user.getId(), Long.valueOf(42));
+    }
+
+    @Test
+    public void testConvertCborContent() throws Exception {
+        byte[] input = JacksonProcessor.cborMapper().writeValueAsBytes(new User().id(42L).user("fehguy"));
+
+        InputStream is = new ByteArrayInputStream(input);
+        ObjectNode o = (ObjectNode) EntityProcessorFactory.readValue(MediaType.valueOf("application/cbor"), is, JsonNode.class);
+        assertEquals(o.get("user").asText(), "fehguy");
+    }
+
+    @Test
+    public void testReadersIgnoreUnknownProperties() throws Exception {
+        String input = "{\"user\":\"fehguy\",\"age\":42}";
+
+        JacksonProcessor.Readers readers = JacksonProcessor.readers(User.class, null);
+        User user = (User) new JacksonProcessor().process(MediaType.APPLICATION_JSON_TYPE,
+                new ByteArrayInputStream(input.getBytes()), readers);
+        assertEquals(user.getUser(), "fehguy");
+    }
+
+    @Test
+    public void testReadersFailOnUnknownProperties() throws Exception {
+        String input = "{\"user\":\"fehguy\",\"age\":42}";
+
+        JacksonProcessor.Readers readers = JacksonProcessor.readers(User.class, true);
+        assertNull(new JacksonProcessor().process(MediaType.valueOf("application/json; charset=UTF-8"),
+                new ByteArrayInputStream(input.getBytes()), readers));
+        assertNull(readers.get(MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    public void testAfterburner() throws Exception {
+        assertTrue(JacksonProcessor.enableAfterburner());
+        assertTrue(JacksonProcessor.enableAfterburner());
+
+        byte[] input = JacksonProcessor.smileMapper().writeValueAsBytes(new User().id(42L).user("fehguy"));
+        User user = (User) EntityProcessorFactory.readValue(JacksonProcessor.APPLICATION_SMILE_TYPE, new ByteArrayInputStream(input), User.class);
+        assertEquals(user.getUser(), "fehguy");
+    }
 }
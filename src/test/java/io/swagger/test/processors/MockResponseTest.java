@@ -0,0 +1,141 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.processors;
+
+import io.swagger.inflector.examples.models.Example;
+import io.swagger.inflector.examples.models.StringExample;
+import io.swagger.inflector.processors.JacksonProcessor;
+import io.swagger.inflector.processors.MockResponse;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class MockResponseTest {
+    @Test
+    public void testSerializeOncePerMediaType() throws Exception {
+        MockResponse mock = MockResponse.create(operation("201"), definitions());
+
+        Response first = mock.toResponse(Arrays.asList(MediaType.APPLICATION_JSON_TYPE), false);
+        Response second = mock.toResponse(Arrays.asList(MediaType.WILDCARD_TYPE), false);
+        assertEquals(first.getStatus(), 201);
+        assertEquals(first.getMediaType(), MediaType.APPLICATION_JSON_TYPE);
+        assertSame(second.getEntity(), first.getEntity());
+        assertEquals(new String((byte[]) first.getEntity(), "utf-8"), "{\"name\":\"fehguy\"}");
+    }
+
+    @Test
+    public void testRestore() throws Exception {
+        List<byte[]> payloads = MockResponse.create(operation("201"), definitions()).getPayloads();
+        MockResponse restored = MockResponse.restore(201, payloads);
+
+        Response response = restored.toResponse(Arrays.asList(MediaType.APPLICATION_JSON_TYPE), false);
+        assertEquals(response.getStatus(), 201);
+        assertEquals(new String((byte[]) response.getEntity(), "utf-8"), "{\"name\":\"fehguy\"}");
+        Response pretty = restored.toResponse(Arrays.asList(MediaType.APPLICATION_JSON_TYPE), true);
+        assertTrue(new String((byte[]) pretty.getEntity(), "utf-8").contains("\n"));
+        assertNull(MockResponse.restore(201, payloads.subList(0, 2)));
+    }
+
+    @Test
+    public void testPrettyPrint() throws Exception {
+        MockResponse mock = MockResponse.create(operation("200"), definitions());
+
+        Response pretty = mock.toResponse(Arrays.asList(MediaType.APPLICATION_JSON_TYPE), true);
+        Response compact = mock.toResponse(Arrays.asList(MediaType.APPLICATION_JSON_TYPE), false);
+        assertTrue(new String((byte[]) pretty.getEntity(), "utf-8").contains("\n"));
+        assertEquals(new String((byte[]) compact.getEntity(), "utf-8"), "{\"name\":\"fehguy\"}");
+    }
+
+    @Test
+    public void testNegotiateMediaType() throws Exception {
+        MockResponse mock = MockResponse.create(operation("200"), definitions()).prepare();
+
+        Response xml = mock.toResponse(Arrays.asList(MediaType.TEXT_HTML_TYPE, MediaType.APPLICATION_XML_TYPE), false);
+        assertEquals(xml.getMediaType(), MediaType.APPLICATION_XML_TYPE);
+        assertTrue(new String((byte[]) xml.getEntity(), "utf-8").contains("<name>fehguy</name>"));
+
+        Response yaml = mock.toResponse(Arrays.asList(MediaType.valueOf("application/yaml")), false);
+        assertEquals(yaml.getMediaType().toString(), "application/yaml");
+
+        Response smile = mock.toResponse(Arrays.asList(JacksonProcessor.APPLICATION_SMILE_TYPE), false);
+        assertEquals(JacksonProcessor.smileMapper().readTree((byte[]) smile.getEntity()).get("name").asText(), "fehguy");
+
+        Response other = mock.toResponse(Arrays.asList(MediaType.TEXT_PLAIN_TYPE), false);
+        assertTrue(other.getEntity() instanceof Example);
+    }
+
+    @Test
+    public void testSerializationFailureIsCached() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        Example example = new StringExample("fehguy") {
+            @Override
+            public String getName() {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("no name");
+            }
+        };
+        MockResponse mock = new MockResponse(200, example);
+
+        Response first = mock.toResponse(Arrays.asList(MediaType.APPLICATION_XML_TYPE), false);
+        int failed = attempts.get();
+        assertTrue(failed > 0);
+        Response second = mock.toResponse(Arrays.asList(MediaType.APPLICATION_XML_TYPE), false);
+        assertEquals(attempts.get(), failed);
+        assertSame(first.getEntity(), example);
+        assertSame(second.getEntity(), example);
+        assertNull(mock.getPayloads().get(1));
+    }
+
+    @Test
+    public void testEmptyResponse() throws Exception {
+        Operation operation = new Operation().response(204, new io.swagger.models.Response().description("none"));
+        Response response = MockResponse.create(operation, definitions()).toResponse(Arrays.asList(MediaType.WILDCARD_TYPE), false);
+
+        assertEquals(response.getStatus(), 204);
+        assertNull(response.getEntity());
+    }
+
+    private static Operation operation(String code) {
+        return new Operation().response(Integer.parseInt(code), new io.swagger.models.Response()
+                .description("ok")
+                .schema(new RefProperty("#/definitions/User")));
+    }
+
+    private static Map<String, Model> definitions() {
+        Map<String, Model> definitions = new HashMap<String, Model>();
+        definitions.put("User", new ModelImpl()
+                .name("User")
+                .property("name", new StringProperty().example("fehguy")));
+        return definitions;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.processors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.inflector.processors.StreamingEntity;
+import io.swagger.inflector.processors.StreamingEntitySerializer;
+import io.swagger.util.Json;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class StreamingEntitySerializerTest {
+    @Test
+    public void testWriteIterator() throws Exception {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        JsonNode node = Json.mapper().readTree(write(StreamingEntity.wrap(values.iterator()), MediaType.APPLICATION_JSON_TYPE));
+
+        assertEquals(node.size(), 1000);
+        assertEquals(node.get(999).asInt(), 999);
+    }
+
+    @Test
+    public void testWriteIterable() throws Exception {
+        Iterable<String> iterable = new Iterable<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return Arrays.asList("a", "b").iterator();
+            }
+        };
+        assertSame(StreamingEntity.wrap(iterable), iterable);
+        assertEquals(write(StreamingEntity.of(iterable), MediaType.APPLICATION_JSON_TYPE), "[\"a\",\"b\"]");
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        final AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        new StreamingEntitySerializer().writeTo(StreamingEntity.of(values), StreamingEntity.class, StreamingEntity.class,
+                new Annotation[0], MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<String, Object>(), out);
+
+        // every 100 items, and once when the array is closed
+        assertEquals(flushes.get(), 11);
+        assertEquals(Json.mapper().readTree(out.toByteArray()).size(), 1000);
+    }
+
+    @Test
+    public void testJsonNodesAreNotWrapped() throws Exception {
+        ObjectNode node = Json.mapper().createObjectNode();
+        node.put("name", "fehguy");
+        assertSame(StreamingEntity.wrap(node), node);
+
+        Path path = Paths.get("target");
+        assertSame(StreamingEntity.wrap(path), path);
+    }
+
+    @Test
+    public void testWriteYaml() throws Exception {
+        String yaml = write(StreamingEntity.wrap(Arrays.asList("a", "b").iterator()), MediaType.valueOf("application/yaml"));
+        assertTrue(yaml.contains("- \"a\""));
+    }
+
+    @Test
+    public void testCloseStream() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> stream = Arrays.asList("a", "b").stream().onClose(new Runnable() {
+            @Override
+            public void run() {
+                closed.set(true);
+            }
+        });
+        assertEquals(write(StreamingEntity.wrap(stream), MediaType.APPLICATION_JSON_TYPE), "[\"a\",\"b\"]");
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testCollectionsAreNotWrapped() throws Exception {
+        List<String> list = Arrays.asList("a", "b");
+        assertSame(StreamingEntity.wrap(list), list);
+    }
+
+    private static String write(Object entity, MediaType mediaType) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StreamingEntitySerializer().writeTo((StreamingEntity) entity, StreamingEntity.class, StreamingEntity.class,
+                new Annotation[0], mediaType, new MultivaluedHashMap<String, Object>(), out);
+        return out.toString("UTF-8");
+    }
+}
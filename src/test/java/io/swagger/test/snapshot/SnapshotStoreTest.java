@@ -0,0 +1,159 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.snapshot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.snapshot.OperationSnapshot;
+import io.swagger.inflector.snapshot.SnapshotStore;
+import io.swagger.inflector.snapshot.StartupSnapshot;
+import io.swagger.models.Swagger;
+import io.swagger.sample.controllers.TestController;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class SnapshotStoreTest {
+    private File dir;
+    private Configuration config;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("inflector-snapshot").toFile();
+        config = new Configuration()
+                .controllerPackage("io.swagger.sample.controllers")
+                .swaggerUrl("./src/test/swagger/sample1.yaml");
+        config.setStartupSnapshot(new File(dir, "snapshot.bin").getPath());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testWriteAndRestore() throws Exception {
+        new SwaggerInflector(config);
+        SnapshotStore store = new SnapshotStore(config);
+        assertTrue(store.getFile().isFile());
+        assertTrue(store.getFile().setLastModified(1000L));
+
+        StartupSnapshot snapshot = store.read();
+        assertNotNull(snapshot);
+        assertNotNull(snapshot.getSwagger().getPath("/hello"));
+
+        OperationSnapshot bound = snapshot.getOperation("/upload", "POST");
+        assertEquals(bound.getControllerClass(), TestController.class.getName());
+        assertEquals(bound.getMethodName(), "uploadFile");
+        assertNull(bound.getMockStatus());
+
+        OperationSnapshot mock = snapshot.getOperation("/mockResponses/complexResponse", "GET");
+        assertNull(mock.getControllerClass());
+        assertEquals(mock.getMockStatus(), Integer.valueOf(200));
+        assertEquals(mock.getMockPayloads().size(), 6);
+
+        // a matching snapshot is used as-is and not written again
+        new SwaggerInflector(config);
+        assertEquals(store.getFile().lastModified(), 1000L);
+    }
+
+    @Test
+    public void testKeyIsStable() throws Exception {
+        File spec = new File(dir, "swagger.yaml");
+        Files.copy(new File("src/test/swagger/sample1.yaml").toPath(), spec.toPath());
+        config.setSwaggerUrl(spec.getPath());
+        String key = new SnapshotStore(config).getKey();
+        assertNotNull(key);
+        assertEquals(new SnapshotStore(config).getKey(), key);
+
+        // writing the snapshot doesn't change it
+        StartupSnapshot snapshot = new StartupSnapshot();
+        snapshot.setSwagger(new Swagger());
+        assertTrue(new SnapshotStore(config).write(snapshot));
+        assertEquals(new SnapshotStore(config).getKey(), key);
+
+        Files.write(spec.toPath(), "\n".getBytes("UTF-8"), StandardOpenOption.APPEND);
+        assertNotEquals(new SnapshotStore(config).getKey(), key);
+    }
+
+    @Test
+    public void testRemoteSpecKeyedByEtag() throws Exception {
+        final byte[] body = Files.readAllBytes(new File("src/test/swagger/sample1.yaml").toPath());
+        final AtomicReference<String> etag = new AtomicReference<String>("\"1\"");
+        final AtomicInteger downloads = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/swagger.yaml", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("ETag", etag.get());
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1);
+                } else {
+                    downloads.incrementAndGet();
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        try {
+            config.setSwaggerUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/swagger.yaml");
+            String key = new SnapshotStore(config).getKey();
+            assertNotNull(key);
+            assertEquals(new SnapshotStore(config).getKey(), key);
+            assertEquals(downloads.get(), 0);
+
+            etag.set("\"2\"");
+            assertNotEquals(new SnapshotStore(config).getKey(), key);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testOutdatedSnapshot() throws Exception {
+        SnapshotStore store = new SnapshotStore(config);
+        StartupSnapshot snapshot = new StartupSnapshot();
+        snapshot.setSwagger(new Swagger());
+        assertTrue(store.write(snapshot));
+        assertNotNull(store.read());
+
+        config.setStartupParallelism(1);
+        assertNull(new SnapshotStore(config).read());
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test.training;
+
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.training.TrainingRun;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TrainingRunTest {
+    @Test
+    public void testExerciseEveryRoute() throws Exception {
+        Configuration config = Configuration.read("src/test/config/config1.yaml");
+        Map<String, Integer> responses = new TrainingRun(config).run();
+
+        assertEquals(responses.get("GET /swagger.json"), Integer.valueOf(200));
+        assertEquals(responses.get("GET /threads"), Integer.valueOf(200));
+        assertEquals(responses.get("POST /upload"), Integer.valueOf(200));
+        assertEquals(responses.get("GET /stream"), Integer.valueOf(200));
+        for (Map.Entry<String, Integer> response : responses.entrySet()) {
+            assertNotEquals(response.getValue(), Integer.valueOf(404), response.getKey() + " was not routed");
+        }
+        assertTrue(responses.size() > 10);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package io.swagger.test.utils;
+
+import io.swagger.inflector.utils.ClassIndex;
+import io.swagger.test.models.User;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ClassIndexTest {
+    @Test
+    public void testFindClass() throws Exception {
+        ClassIndex index = new ClassIndex();
+        assertSame(index.findClass("io.swagger.test.models.User"), User.class);
+        assertSame(index.findClass("io.swagger.test.models.User"), User.class);
+        assertNull(index.findClass("io.swagger.test.models.Missing"));
+        assertNull(index.findClass("io.swagger.test.models.Missing"));
+    }
+
+    @Test
+    public void testGetMethods() throws Exception {
+        ClassIndex index = new ClassIndex();
+        List<Method> methods = index.getMethods(User.class, "id");
+        assertEquals(methods.size(), 1);
+        assertEquals(methods.get(0), User.class.getMethod("id", Long.class));
+        assertSame(index.getMethods(User.class, "id"), methods);
+        assertTrue(index.getMethods(User.class, "missing").isEmpty());
+    }
+}
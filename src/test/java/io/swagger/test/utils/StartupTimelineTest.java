@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2015 SmartBear Software
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package io.swagger.test.utils;
+
+import io.swagger.inflector.StartupTimelineController;
+import io.swagger.inflector.SwaggerInflector;
+import io.swagger.inflector.config.Configuration;
+import io.swagger.inflector.utils.ClassIndex;
+import io.swagger.inflector.utils.StartupTimeline;
+import io.swagger.util.Json;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class StartupTimelineTest {
+    @Test
+    public void testSpans() throws Exception {
+        ClassIndex index = new ClassIndex();
+        StartupTimeline timeline = new StartupTimeline(index);
+        StartupTimeline.Span phase = timeline.phase("lookup");
+        assertNull(index.findClass("io.swagger.test.models.Missing"));
+        assertNull(index.findClass("io.swagger.test.models.Missing"));
+        List<byte[]> garbage = new ArrayList<byte[]>();
+        for (int i = 0; i < 16; i++) {
+            garbage.add(new byte[64 * 1024]);
+        }
+        phase.addAllocatedBytes(1000);
+        StartupTimeline.Entry entry = phase.end("detail");
+        timeline.finish();
+
+        assertEquals(entry.getName(), "lookup");
+        assertEquals(entry.getDetail(), "detail");
+        assertEquals(entry.getClassLookupMisses(), 1);
+        assertTrue(entry.getAllocatedBytes() >= 1000);
+        assertEquals(timeline.getClassLookupMisses(), 1);
+        assertEquals(timeline.getPhases().size(), 1);
+        assertTrue(timeline.getSummary().contains("lookup"));
+        assertEquals(garbage.size(), 16);
+    }
+
+    @Test
+    public void testInflectorTimeline() throws Exception {
+        Configuration config = Configuration.read("src/test/config/config1.yaml");
+        config.setStartupTimelinePath("/startup.json");
+        StartupTimeline timeline = new SwaggerInflector(config).getStartupTimeline();
+
+        List<String> phases = new ArrayList<String>();
+        for (StartupTimeline.Entry phase : timeline.getPhases()) {
+            phases.add(phase.getName());
+        }
+        assertTrue(phases.containsAll(Arrays.asList("read spec", "resolve references", "bind operations",
+                "register resources", "register providers")), phases.toString());
+
+        StartupTimeline.Entry threads = null;
+        for (StartupTimeline.Entry operation : timeline.getOperations()) {
+            if ("GET /api/threads".equals(operation.getName())) {
+                threads = operation;
+            }
+        }
+        assertEquals(threads.getDetail(), "TestController.currentThread");
+        assertEquals(timeline.getOperations().size(), 24);
+
+        Response response = new StartupTimelineController(timeline).apply(null);
+        Map<?, ?> json = Json.mapper().readValue((byte[]) response.getEntity(), Map.class);
+        assertEquals(((List<?>) json.get("operations")).size(), 24);
+        assertTrue(json.containsKey("totalMillis"));
+        assertTrue(json.containsKey("phases"));
+    }
+}